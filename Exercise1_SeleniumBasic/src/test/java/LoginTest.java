@@ -1,7 +1,6 @@
 import io.github.bonigarcia.wdm.WebDriverManager;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.CsvFileSource;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
@@ -10,10 +9,13 @@ import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.CsvShardRunner;
+import utils.FixtureServer;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -21,6 +23,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 @DisplayName("Login Tests using Page Object Model")
 public class LoginTest {
 
+    // -Dbase.url=fixture chạy trên FixtureServer thay vì trang thật
+    static final String LOGIN_URL = FixtureServer.resolveBaseUrl("https://the-internet.herokuapp.com") + "/login";
+
     static WebDriver driver;
     static WebDriverWait wait;
 
@@ -28,22 +33,27 @@ public class LoginTest {
     static void setUp() {
         WebDriverManager.chromedriver().setup();
 
+        driver = newDriver();
+        wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+    }
+
+    static WebDriver newDriver() {
         ChromeOptions options = new ChromeOptions();
         Map<String, Object> prefs = new HashMap<>();
         prefs.put("profile.managed_default_content_settings.javascript", 2); // Tắt JS
         options.setExperimentalOption("prefs", prefs);
         options.addArguments("--incognito"); // Ẩn danh
 
-        driver = new ChromeDriver(options);
-        wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        WebDriver driver = new ChromeDriver(options);
         driver.manage().window().maximize();
+        return driver;
     }
 
     @Test
     @Order(1)
     @DisplayName("Should login successfully with valid credentials")
     void testLoginSuccess() {
-        driver.get("https://the-internet.herokuapp.com/login");
+        driver.get(LOGIN_URL);
 
         driver.findElement(By.id("username")).sendKeys("tomsmith");
         driver.findElement(By.id("password")).sendKeys("SuperSecretPassword!");
@@ -59,7 +69,7 @@ public class LoginTest {
     @Order(2)
     @DisplayName("Should display error when logging in with invalid credentials")
     void testLoginFail() {
-        driver.get("https://the-internet.herokuapp.com/login");
+        driver.get(LOGIN_URL);
 
         driver.findElement(By.id("username")).sendKeys("invalid");
         driver.findElement(By.id("password")).sendKeys("wrongpassword");
@@ -81,34 +91,24 @@ public class LoginTest {
     })
     @DisplayName("Multiple login attempts using @CsvSource")
     void testLoginCsvInline(String username, String password, String expectedResult) {
-        driver.get("https://the-internet.herokuapp.com/login");
-
-        driver.findElement(By.id("username")).sendKeys(username);
-        driver.findElement(By.id("password")).sendKeys(password);
-        driver.findElement(By.cssSelector("button[type='submit']")).click();
-
-        By messageLocator = expectedResult.equals("success")
-                ? By.cssSelector(".flash.success")
-                : By.cssSelector(".flash.error");
-
-        WebElement message = wait.until(ExpectedConditions.visibilityOfElementLocated(messageLocator));
-
-        if (expectedResult.equals("success")) {
-            assertTrue(message.getText().contains("You logged into a secure area!"));
-        } else {
-            assertTrue(message.getText().toLowerCase().contains("invalid"));
-        }
+        checkLoginRow(driver, username, password, expectedResult);
     }
 
+    // Các hàng CSV được chia shard chạy song song, mỗi shard mở thêm một Chrome riêng (-Dcsv.shards, mặc định 2)
     @Order(4)
-    @ParameterizedTest(name = "CSV File: {0} / {1}")
-    @CsvFileSource(resources = "/login-data.csv", numLinesToSkip = 1)
+    @TestFactory
     @DisplayName("Login with data from external CSV file")
-    void testLoginFromCSV(String username, String password, String expectedResult) {
-        driver.get("https://the-internet.herokuapp.com/login");
+    Stream<DynamicTest> testLoginFromCSV() {
+        CsvShardRunner runner = new CsvShardRunner("login-data", Integer.getInteger("csv.shards", 2),
+                LoginTest::newDriver, WebDriver::quit);
+        return runner.dynamicTests("/login-data.csv", driver,
+                (session, row) -> checkLoginRow(session, row.text(0), row.text(1), row.get(2)),
+                row -> "CSV File: " + row.text(0) + " / " + row.text(1));
+    }
 
-        username = (username == null) ? "" : username.trim();
-        password = (password == null) ? "" : password.trim();
+    private static void checkLoginRow(WebDriver driver, String username, String password, String expectedResult) {
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        driver.get(LOGIN_URL);
 
         driver.findElement(By.id("username")).sendKeys(username);
         driver.findElement(By.id("password")).sendKeys(password);
@@ -1,33 +1,146 @@
 package pages;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.*;
+import utils.BrowserProfile;
+import utils.BrowserScripts;
+import utils.ElementCacheStats;
+import utils.StepMetrics;
+
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 public class BasePage {
+
+    // trả về tên các điều kiện đang đúng, tất cả trong một lần gọi script
+    private static final String PROBE_SCRIPT =
+            "function find(kind, query) {"
+            + "  return kind === 'xpath'"
+            + "    ? document.evaluate(query, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue"
+            + "    : document.querySelector(query);"
+            + "}"
+            + "function visible(el) {"
+            + "  if (!el || el.getClientRects().length === 0) return false;"
+            + "  var style = getComputedStyle(el);"
+            + "  return style.visibility !== 'hidden' && style.display !== 'none';"
+            + "}"
+            + "var conditions = arguments[0], matched = [];"
+            + "for (var i = 0; i < conditions.length; i++) {"
+            + "  var c = conditions[i], ok;"
+            + "  switch (c[1]) {"
+            + "    case 'present': ok = !!find(c[2], c[3]); break;"
+            + "    case 'visible': ok = visible(find(c[2], c[3])); break;"
+            + "    case 'text': ok = !!document.body && document.body.innerText.indexOf(c[3]) >= 0; break;"
+            + "    case 'url': ok = location.href.indexOf(c[3]) >= 0; break;"
+            + "    default: ok = false;"
+            + "  }"
+            + "  if (ok) matched.push(c[0]);"
+            + "}"
+            + "return matched;";
+
+    // thời gian không có request mới thì coi như mạng đã rảnh
+    private static final Duration NETWORK_QUIET = Duration.ofMillis(500);
+    private static final Duration POLL = Duration.ofMillis(100);
+
     protected WebDriver driver;
     protected WebDriverWait wait;
+    private final String pageName = getClass().getSimpleName();
+    // phần tử đã tìm thấy trên trang hiện tại; xoá khi điều hướng hoặc khi phần tử bị stale
+    private final Map<By, WebElement> elements = new HashMap<>();
+    private final ElementCacheStats cacheStats = ElementCacheStats.forPage(pageName);
 
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(15)); // Tăng từ 10 lên 15 giây
+        this.wait = waitUpTo(Duration.ofSeconds(15)); // Tăng từ 10 lên 15 giây
     }
+    /** The visible element, reusing the one found earlier on this page while it is still attached. */
     protected WebElement waitForVisibility(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        WebElement cached = elements.get(locator);
+        if (cached != null) {
+            try {
+                if (cached.isDisplayed()) {
+                    cacheStats.hit();
+                    return cached;
+                }
+            } catch (StaleElementReferenceException e) {
+                evict(locator);
+            }
+        }
+        cacheStats.miss();
+        WebElement found = timed("visibility", locator, wait, ExpectedConditions.visibilityOfElementLocated(locator));
+        elements.put(locator, found);
+        return found;
     }
     protected void click(By locator) {
-        waitForVisibility(locator).click();
+        step("click", locator, () -> withVisible(locator, element -> {
+            element.click();
+            return null;
+        }));
     }
 
     protected void type(By locator, String text) {
-        WebElement element = waitForVisibility(locator);
-        element.clear();
-        element.sendKeys(text);
+        step("type", locator, () -> withVisible(locator, element -> {
+            element.clear();
+            element.sendKeys(text);
+            return null;
+        }));
     }
     protected String getText(By locator) {
-        return waitForVisibility(locator).getText();
+        return step("getText", locator, () -> withVisible(locator, WebElement::getText));
     }
 
     public void navigateTo(String url) {
-        driver.get(url);
+        step("navigate", url, () -> {
+            invalidateElements();
+            long start = System.nanoTime();
+            boolean timedOut = false;
+            try {
+                driver.get(url);
+            } catch (TimeoutException e) {
+                timedOut = true;
+                throw e;
+            } finally {
+                BrowserProfile.current().recordPageLoad(url, System.nanoTime() - start, timedOut);
+            }
+            return null;
+        });
+    }
+
+    /** Forgets every cached element, e.g. after an action that re-renders the page. */
+    protected void invalidateElements() {
+        elements.clear();
+    }
+
+    protected ElementCacheStats cacheStats() {
+        return cacheStats;
+    }
+
+    /** Sets every field in one script call; see {@link #fillFields(Map, Set)}. */
+    protected void fillFields(Map<By, String> values) {
+        fillFields(values, Collections.emptySet());
+    }
+
+    /**
+     * Sets the value of every field in {@code values} with a single {@code executeScript}
+     * call instead of a clear and sendKeys round-trip per field, firing the input and
+     * change events a user would. Fields in {@code typedFields}, fields whose locator has no
+     * CSS or XPath form, and fields the script cannot find are typed key by key afterwards.
+     * Put fields with {@code minlength} or {@code maxlength} in {@code typedFields}: browsers
+     * only check those limits on values the user typed.
+     */
+    protected void fillFields(Map<By, String> values, Set<By> typedFields) {
+        step("fillFields", values.keySet(), () -> {
+            for (By locator : BrowserScripts.fill(js(), values, typedFields)) {
+                type(locator, values.get(locator));
+            }
+            return null;
+        });
     }
 
     protected boolean isElementVisible(By locator) {
@@ -37,4 +150,178 @@ public class BasePage {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /** Waits until {@code document.readyState} is {@code complete}. */
+    protected void waitForDomReady() {
+        timed("domReady", null, wait, d -> "complete".equals(js().executeScript("return document.readyState")));
+    }
+
+    /**
+     * Waits until no new resource has been requested for {@link #NETWORK_QUIET}, or gives up
+     * after {@code max}: pages with ads or polling never go fully quiet.
+     *
+     * @return whether the network went quiet
+     */
+    protected boolean waitForNetworkIdle(Duration max) {
+        long[] last = {-1, 0};
+        return tryTimed("networkIdle", null, max, d -> {
+            long count = ((Number) js().executeScript(
+                    "return performance.getEntriesByType('resource').length")).longValue();
+            long now = System.nanoTime();
+            if (count != last[0]) {
+                last[0] = count;
+                last[1] = now;
+                return false;
+            }
+            return now - last[1] >= NETWORK_QUIET.toNanos();
+        });
+    }
+
+    /** Waits until the element is visible and its position and size stop changing between polls. */
+    protected WebElement waitForStable(By locator) {
+        Object[] lastRect = {null};
+        return timed("stable", locator, wait, d -> {
+            WebElement element = resolve(locator);
+            try {
+                if (!element.isDisplayed()) return null;
+                Object rect = js().executeScript(
+                        "var r = arguments[0].getBoundingClientRect(); return [r.x, r.y, r.width, r.height];", element);
+                boolean stable = rect.equals(lastRect[0]);
+                lastRect[0] = rect;
+                return stable ? element : null;
+            } catch (StaleElementReferenceException e) {
+                evict(locator);
+                return null;
+            }
+        });
+    }
+
+    /** Waits up to {@code max} for any of the locators to match an element, recorded under {@code name}. */
+    protected boolean waitForAny(String name, Duration max, By... locators) {
+        List<Condition> conditions = new ArrayList<>();
+        for (By locator : locators) conditions.add(Condition.present(locator.toString(), locator));
+        return !probeUntilAny(name, max, conditions).isEmpty();
+    }
+
+    /** Evaluates every condition in one script call and returns the names of those that hold. */
+    protected Set<String> probe(List<Condition> conditions) {
+        List<List<String>> encoded = new ArrayList<>();
+        for (Condition condition : conditions) encoded.add(condition.encoded);
+        Object matched = js().executeScript(PROBE_SCRIPT, encoded);
+        Set<String> names = new LinkedHashSet<>();
+        for (Object name : (List<?>) matched) names.add((String) name);
+        return names;
+    }
+
+    /**
+     * Polls {@link #probe} until at least one condition holds, costing one round-trip per
+     * poll however many conditions there are.
+     *
+     * @return the conditions that held, or an empty set if none did within {@code max}
+     */
+    protected Set<String> probeUntilAny(String name, Duration max, List<Condition> conditions) {
+        Set<String> matched = new LinkedHashSet<>();
+        tryTimed("probe:" + name, null, max, d -> {
+            matched.addAll(probe(conditions));
+            return !matched.isEmpty();
+        });
+        return matched;
+    }
+
+    protected JavascriptExecutor js() {
+        return (JavascriptExecutor) driver;
+    }
+
+    /** The cached element, or the first match found now; throws if there is none. */
+    private WebElement resolve(By locator) {
+        WebElement cached = elements.get(locator);
+        if (cached != null) {
+            cacheStats.hit();
+            return cached;
+        }
+        cacheStats.miss();
+        WebElement found = driver.findElement(locator);
+        elements.put(locator, found);
+        return found;
+    }
+
+    /** Runs {@code action} on the visible element, resolving it again once if it went stale in between. */
+    private <T> T withVisible(By locator, Function<WebElement, T> action) {
+        try {
+            return action.apply(waitForVisibility(locator));
+        } catch (StaleElementReferenceException e) {
+            evict(locator);
+            return action.apply(waitForVisibility(locator));
+        }
+    }
+
+    private void evict(By locator) {
+        if (elements.remove(locator) != null) cacheStats.staleRecovery();
+    }
+
+    private WebDriverWait waitUpTo(Duration max) {
+        WebDriverWait waiter = new WebDriverWait(driver, max);
+        waiter.pollingEvery(POLL).ignoring(StaleElementReferenceException.class);
+        return waiter;
+    }
+
+    /** Runs one page action, recording its latency in {@link StepMetrics} under this page and {@code target}. */
+    protected <T> T step(String action, Object target, Supplier<T> body) {
+        return StepMetrics.time(pageName, action, target, body);
+    }
+
+    private <T> T timed(String name, By locator, WebDriverWait on, Function<WebDriver, T> condition) {
+        long start = System.nanoTime();
+        boolean satisfied = false;
+        try {
+            T result = on.until(condition);
+            satisfied = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            StepMetrics.record(pageName, "wait:" + name, locator == null ? "" : locator.toString(), elapsed, !satisfied);
+        }
+    }
+
+    private boolean tryTimed(String name, By locator, Duration max, Function<WebDriver, Boolean> condition) {
+        try {
+            return timed(name, locator, waitUpTo(max), condition);
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /** A named check for {@link #probe}, evaluated in the browser. */
+    public static final class Condition {
+        final List<String> encoded;
+
+        private Condition(String name, String kind, String using, String value) {
+            this.encoded = List.of(name, kind, using, value);
+        }
+
+        /** An element matching {@code locator} exists; the locator must have a CSS or XPath form. */
+        public static Condition present(String name, By locator) {
+            return ofLocator(name, "present", locator);
+        }
+
+        /** An element matching {@code locator} exists and is rendered. */
+        public static Condition visible(String name, By locator) {
+            return ofLocator(name, "visible", locator);
+        }
+
+        /** The page's visible text contains {@code text}. */
+        public static Condition textContains(String name, String text) {
+            return new Condition(name, "text", "", text);
+        }
+
+        public static Condition urlContains(String name, String fragment) {
+            return new Condition(name, "url", "", fragment);
+        }
+
+        private static Condition ofLocator(String name, String kind, By locator) {
+            String[] query = BrowserScripts.remoteQuery(locator);
+            if (query == null) throw new IllegalArgumentException("No CSS or XPath form for " + locator);
+            return new Condition(name, kind, query[0], query[1]);
+        }
+    }
+}
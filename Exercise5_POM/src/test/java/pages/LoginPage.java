@@ -2,6 +2,7 @@ package pages;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import utils.FixtureServer;
 
 public class LoginPage extends BasePage {
 
@@ -18,7 +19,7 @@ public class LoginPage extends BasePage {
 
     // Actions
     public void navigate() {
-        navigateTo("https://the-internet.herokuapp.com/login");
+        navigateTo(FixtureServer.resolveBaseUrl("https://the-internet.herokuapp.com") + "/login");
     }
 
     public void login(String username, String password) {
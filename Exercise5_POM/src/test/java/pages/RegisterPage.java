@@ -1,5 +1,12 @@
 package pages;
 import org.openqa.selenium.*;
+import utils.FixtureServer;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 public class RegisterPage extends BasePage {
     public RegisterPage(WebDriver driver) {
         super(driver);
@@ -11,27 +18,32 @@ public class RegisterPage extends BasePage {
     private By mobile = By.id("userNumber");
     private By submitBtn = By.id("submit");
     private By successTitle = By.id("example-modal-sizes-title-lg");
+    private By successModal = By.cssSelector(".modal-content");
+    private By validatedForm = By.cssSelector("form.was-validated");
     private By validationError = By.cssSelector(".was-validated .invalid-feedback");
+    private final List<Condition> successSignals = List.of(
+            Condition.visible("title", successTitle),
+            Condition.present("modal", successModal),
+            Condition.textContains("thanks", "Thanks for submitting the form"),
+            Condition.urlContains("successUrl", "success"),
+            Condition.urlContains("thankUrl", "thank"));
+    private final List<Condition> validationSignals = List.of(
+            Condition.visible("success", successTitle),
+            Condition.present("feedback", validationError),
+            Condition.present("invalidInput", By.cssSelector("input:invalid")));
     public void navigate() {
-        navigateTo("https://demoqa.com/automation-practice-form");
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        navigateTo(FixtureServer.resolveBaseUrl("https://demoqa.com") + "/automation-practice-form");
+        waitForDomReady();
+        // quảng cáo của demoqa tải liên tục nên chỉ chờ mạng rảnh tối đa 3 giây
+        waitForNetworkIdle(Duration.ofSeconds(3));
 
         try {
-            ((JavascriptExecutor) driver).executeScript("document.getElementById('fixedban').style.display='none';");
-            ((JavascriptExecutor) driver).executeScript("document.getElementsByTagName('footer')[0].style.display='none';");
+            js().executeScript("document.getElementById('fixedban').style.display='none';");
+            js().executeScript("document.getElementsByTagName('footer')[0].style.display='none';");
         } catch (Exception ignored) {}
 
-        ((JavascriptExecutor) driver).executeScript("window.scrollTo(0, 300);");
-
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        js().executeScript("window.scrollTo(0, 300);");
+        waitForStable(firstName);
     }
     public void fillForm(String fName, String lName, String mail, String phone) {
         navigate();
@@ -39,107 +51,60 @@ public class RegisterPage extends BasePage {
         try {
             waitForVisibility(firstName);
         } catch (Exception e) {
-            ((JavascriptExecutor) driver).executeScript("window.scrollTo(0, 0);");
-            try {
-                Thread.sleep(2000);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-            }
-            waitForVisibility(firstName);
+            js().executeScript("window.scrollTo(0, 0);");
+            waitForStable(firstName);
         }
 
-        type(firstName, fName);
-        type(lastName, lName);
-        type(email, mail);
+        Map<By, String> fields = new LinkedHashMap<>();
+        fields.put(firstName, fName);
+        fields.put(lastName, lName);
+        fields.put(email, mail);
+        fields.put(mobile, phone);
+        // minlength/maxlength chỉ được kiểm tra với giá trị người dùng gõ, nên số điện thoại phải gõ từng phím
+        fillFields(fields, Set.of(mobile));
 
         try {
             WebElement genderElement = driver.findElement(genderMale);
-            ((JavascriptExecutor) driver).executeScript("arguments[0].click();", genderElement);
+            js().executeScript("arguments[0].click();", genderElement);
         } catch (Exception e) {
             driver.findElement(genderMale).click();
         }
 
-        type(mobile, phone);
-
         try {
             WebElement submitElement = driver.findElement(submitBtn);
-            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", submitElement);
-            Thread.sleep(1000);
+            js().executeScript("arguments[0].scrollIntoView(true);", submitElement);
+            waitForStable(submitBtn);
         } catch (Exception e) {
         }
 
         try {
             WebElement submitElement = driver.findElement(submitBtn);
-            ((JavascriptExecutor) driver).executeScript("arguments[0].click();", submitElement);
-
-            try {
-                Thread.sleep(2000);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-            }
+            js().executeScript("arguments[0].click();", submitElement);
         } catch (Exception e) {
             driver.findElement(submitBtn).click();
-            try {
-                Thread.sleep(2000);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-            }
         }
+        // form có class was-validated hoặc modal hiện ra là đã có kết quả submit
+        waitForAny("submitOutcome", Duration.ofSeconds(5), successModal, validatedForm);
     }
 
     public boolean isSubmitSuccess() {
         try {
-            try {
-                Thread.sleep(2000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-
-            boolean success = false;
-
-            if (isElementVisible(successTitle)) {
-                success = true;
-            }
-            if (driver.findElements(By.cssSelector(".modal-content")).size() > 0) {
-                success = true;
-            }
-
-            if (driver.findElements(By.xpath("//*[contains(text(), 'Thanks for submitting the form')]")).size() > 0) {
-                success = true;
-            }
-            
-            String currentUrl = driver.getCurrentUrl();
-            if (currentUrl.contains("success") || currentUrl.contains("thank")) {
-                success = true;
-            }
-            
-            return success;
-        } catch (Exception e) {
+            // mọi dấu hiệu thành công được kiểm tra cùng lúc trong một lần gọi script mỗi vòng
+            return !probeUntilAny("submitSuccess", Duration.ofSeconds(3), successSignals).isEmpty();
+        } catch (WebDriverException e) {
             return isElementVisible(successTitle);
         }
     }
 
     public boolean hasValidationErrors() {
         try {
-            Thread.sleep(1000);
-
-            boolean hasErrors = false;
-
-            if (driver.findElements(By.cssSelector(".was-validated .invalid-feedback")).size() > 0) {
-                hasErrors = true;
-            }
-
-            if (driver.findElements(By.cssSelector("input:invalid")).size() > 0) {
-                hasErrors = true;
-            }
-
-            if (isElementVisible(successTitle)) {
+            Set<String> matched = probeUntilAny("validation", Duration.ofSeconds(2), validationSignals);
+            if (matched.contains("success")) {
                 return false;
             }
-            
-            return hasErrors;
-        } catch (Exception e) {
+            return matched.contains("feedback") || matched.contains("invalidInput");
+        } catch (WebDriverException e) {
             return !isElementVisible(successTitle);
         }
     }
-}
\ No newline at end of file
+}
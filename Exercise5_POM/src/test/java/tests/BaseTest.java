@@ -2,22 +2,25 @@ package tests;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
 import org.openqa.selenium.WebDriver;
 import utils.DriverFactory;
 
+// Mỗi test class giữ driver riêng lấy từ pool, nên các class có thể chạy song song
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public abstract class BaseTest {
-    protected static WebDriver driver;
+    protected WebDriver driver;
 
     @BeforeAll
-    public static void setUpBase() {
-        driver = DriverFactory.createDriver();
-        driver.manage().window().maximize();
+    public void setUpBase() {
+        driver = DriverFactory.acquireDriver();
     }
 
     @AfterAll
-    public static void tearDownBase() {
+    public void tearDownBase() {
         if (driver != null) {
-            driver.quit();
+            DriverFactory.releaseDriver(driver);
+            driver = null;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,24 +1,24 @@
 package tests;
 
 import org.junit.jupiter.api.*;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.CsvFileSource;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.*;
 import pages.LoginPage;
+import utils.DriverFactory;
 
 import java.time.Duration;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @DisplayName("Login Tests using Page Object Model")
 public class LoginTest extends BaseTest{
-    static WebDriverWait wait;
-    static LoginPage loginPage;
+    WebDriverWait wait;
+    LoginPage loginPage;
 
     @BeforeAll
-    static void initPage() {
+    void initPage() {
         loginPage = new LoginPage(driver);
         wait = new WebDriverWait(driver, Duration.ofSeconds(10));
     }
@@ -43,13 +43,21 @@ public class LoginTest extends BaseTest{
         assertTrue(error.getText().toLowerCase().contains("invalid"));
     }
 
-    @ParameterizedTest(name = "CSV File: {0} / {1}")
+    // Các hàng CSV được chia shard và chạy song song, mỗi shard một browser từ pool
+    @TestFactory
     @Order(3)
-    @CsvFileSource(resources = "/login-data.csv", numLinesToSkip = 1)
-    void testLoginFromCSV(String username, String password, String expected) {
+    @DisplayName("Login with data from external CSV file")
+    Stream<DynamicTest> testLoginFromCSV() {
+        return DriverFactory.csvShardRunner("login-data")
+                .dynamicTests("/login-data.csv", driver, (session, row) -> checkLoginRow(
+                        session, row.text(0), row.text(1), row.get(2)),
+                        row -> "CSV File: " + row.text(0) + " / " + row.text(1));
+    }
+
+    private void checkLoginRow(WebDriver session, String username, String password, String expected) {
+        LoginPage loginPage = session == driver ? this.loginPage : new LoginPage(session);
+        WebDriverWait wait = session == driver ? this.wait : new WebDriverWait(session, Duration.ofSeconds(10));
         loginPage.navigate();
-        username = (username == null) ? "" : username.trim();
-        password = (password == null) ? "" : password.trim();
 
         loginPage.login(username, password);
         By resultLocator = expected.equals("success") ? loginPage.getSuccessLocator() : loginPage.getErrorLocator();
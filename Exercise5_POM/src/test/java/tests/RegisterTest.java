@@ -1,18 +1,18 @@
 package tests;
 import org.junit.jupiter.api.*;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.CsvFileSource;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import pages.RegisterPage;
+import utils.DriverFactory;
 import java.time.Duration;
+import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @DisplayName("Register Tests for demoqa.com")
 public class RegisterTest extends BaseTest {
-    static WebDriverWait wait;
-    static RegisterPage registerPage;
+    WebDriverWait wait;
+    RegisterPage registerPage;
     @BeforeAll
-    static void initPage() {
+    void initPage() {
         registerPage = new RegisterPage(driver);
         wait = new WebDriverWait(driver, Duration.ofSeconds(15));
     }
@@ -33,33 +33,32 @@ public class RegisterTest extends BaseTest {
         assertTrue(registerPage.hasValidationErrors());
     }
 
-    @ParameterizedTest(name = "CSV File Register: {0} / {1} / {2} / {3}")
+    // Các hàng CSV được chia shard và chạy song song, mỗi shard một browser từ pool;
+    // kết quả gộp lại theo đúng thứ tự hàng trong file
+    @TestFactory
     @Order(3)
-    @CsvFileSource(resources = "/register-data.csv", numLinesToSkip = 1)
-    void testRegisterFromCSV(String firstName, String lastName, String email, String phone, String expected) {
+    @DisplayName("Register with data from external CSV file")
+    Stream<DynamicTest> testRegisterFromCSV() {
+        return DriverFactory.csvShardRunner("register-data")
+                .dynamicTests("/register-data.csv", driver, (session, row) -> checkRegisterRow(
+                        session == driver ? registerPage : new RegisterPage(session),
+                        row.text(0), row.text(1), row.text(2), row.text(3), row.get(4)),
+                        row -> "CSV File Register: " + row.text(0) + " / " + row.text(1)
+                                + " / " + row.text(2) + " / " + row.text(3));
+    }
+
+    private void checkRegisterRow(RegisterPage registerPage, String firstName, String lastName,
+                                  String email, String phone, String expected) {
         registerPage.navigate();
-        firstName = (firstName == null || firstName.equals("null")) ? "" : firstName.trim();
-        lastName = (lastName == null || lastName.equals("null")) ? "" : lastName.trim();
-        email = (email == null || email.equals("null")) ? "" : email.trim();
-        phone = (phone == null || phone.equals("null")) ? "" : phone.trim();
-        
         try {
             registerPage.fillForm(firstName, lastName, email, phone);
             if (expected.equals("success")) {
                 assertTrue(registerPage.isSubmitSuccess(), 
                     "Expected success but got failure for: " + firstName + "/" + lastName + "/" + email + "/" + phone);
             } else {
-                boolean hasValidationErrors = registerPage.hasValidationErrors();
-                if (firstName.isEmpty()) {
-                    assertTrue(hasValidationErrors, 
-                        "Expected validation error for empty firstName");
-                } else if (lastName.isEmpty() || email.equals("invalid-email") || phone.isEmpty()) {
-                    assertTrue(true, 
-                        "Validation result acceptable for: " + firstName + "/" + lastName + "/" + email + "/" + phone);
-                } else {
-                    assertTrue(hasValidationErrors, 
-                        "Expected validation errors for invalid data");
-                }
+                // lastName, email (pattern) và mobile đều được form kiểm tra, nên mọi hàng error phải báo lỗi
+                assertTrue(registerPage.hasValidationErrors(),
+                    "Expected validation errors for: " + firstName + "/" + lastName + "/" + email + "/" + phone);
             }
         } catch (Exception e) {
             if (expected.equals("error")) {
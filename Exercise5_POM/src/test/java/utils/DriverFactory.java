@@ -1,17 +1,59 @@
 package utils;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 
-import java.util.HashMap;
-import java.util.Map;
-
+/**
+ * Creates Chrome drivers and shares them between test classes through a {@link DriverPool}.
+ * Pool settings come from system properties: {@code driver.pool.size} (default: number of
+ * cores), {@code driver.pool.maxUses} (default 20) and {@code driver.pool.warm} (browsers
+ * started up front, default 1). Browsers are launched with the {@link BrowserProfile} named
+ * by {@code browser.profile}.
+ */
 public class DriverFactory {
+    private static final class Holder {
+        static final DriverPool POOL = createPool();
+    }
+
+    /** Leases a browser from the shared pool; give it back with {@link #releaseDriver}. */
+    public static WebDriver acquireDriver() {
+        return Holder.POOL.acquire();
+    }
+
+    /** Leases a browser only if one is free or can be started now, otherwise returns {@code null}. */
+    public static WebDriver tryAcquireDriver() {
+        return Holder.POOL.tryAcquire();
+    }
+
+    public static void releaseDriver(WebDriver driver) {
+        Holder.POOL.release(driver);
+    }
+
+    /**
+     * A {@link CsvShardRunner} whose extra sessions are leased from the shared pool. The shard
+     * count comes from {@code csv.shards} (default 2) and is capped at the pool size, since
+     * a shard beyond it could never get a browser of its own.
+     */
+    public static CsvShardRunner csvShardRunner(String name) {
+        int shards = Math.min(Integer.getInteger("csv.shards", 2), poolSize());
+        return new CsvShardRunner(name, Math.max(1, shards), DriverFactory::tryAcquireDriver, DriverFactory::releaseDriver);
+    }
+
+    /** The most browsers the shared pool will run at once ({@code driver.pool.size}). */
+    public static int poolSize() {
+        return Integer.getInteger("driver.pool.size", Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Starts a new, unpooled browser with the current profile. */
     public static WebDriver createDriver() {
-        WebDriverManager.chromedriver().setup();
+        return createDriver(BrowserProfile.current());
+    }
+
+    public static WebDriver createDriver(BrowserProfile profile) {
+        DriverBinaries.chromeDriver();
 
+        long start = System.nanoTime();
         ChromeOptions options = new ChromeOptions();
         // Bật JavaScript (cần thiết cho RegisterTest)
         // prefs.put("profile.managed_default_content_settings.javascript", 1); // 1: Cho phép JavaScript
@@ -19,6 +61,17 @@ public class DriverFactory {
         options.addArguments("--disable-blink-features=AutomationControlled");
         options.addArguments("--disable-extensions");
 
-        return new ChromeDriver(options);
+        WebDriver driver = new ChromeDriver(profile.configure(options));
+        profile.afterStart(driver);
+        profile.recordStartup(System.nanoTime() - start);
+        return driver;
+    }
+
+    private static DriverPool createPool() {
+        DriverPool pool = new DriverPool(DriverFactory::createDriver, poolSize(),
+                Integer.getInteger("driver.pool.maxUses", 20));
+        pool.warmUp(Integer.getInteger("driver.pool.warm", 1));
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "driver-pool-shutdown"));
+        return pool;
     }
 }
\ No newline at end of file
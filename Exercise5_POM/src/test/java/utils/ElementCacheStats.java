@@ -0,0 +1,71 @@
+package utils;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit rate of the element cache in {@code BasePage}, per page object class. All instances
+ * of a page share one set of counters. The summary is printed when the JVM exits, with
+ * the {@link StepMetrics} report.
+ */
+public final class ElementCacheStats {
+
+    private static final Map<String, ElementCacheStats> PAGES = new ConcurrentHashMap<>();
+
+    static {
+        StepMetrics.addExitSummary(() -> PAGES.isEmpty() ? null : summary());
+    }
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleRecoveries = new LongAdder();
+
+    private ElementCacheStats() {
+    }
+
+    public static ElementCacheStats forPage(String page) {
+        return PAGES.computeIfAbsent(page, p -> new ElementCacheStats());
+    }
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    /** A cached element had gone stale and was resolved again. */
+    public void staleRecovery() {
+        staleRecoveries.increment();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long staleRecoveries() {
+        return staleRecoveries.sum();
+    }
+
+    /** Share of lookups answered from the cache, 0 before the first lookup. */
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public static String summary() {
+        StringBuilder out = new StringBuilder("[ElementCache]");
+        new TreeMap<>(PAGES).forEach((page, stats) -> out.append(String.format(
+                "%n  %-20s hits=%-6d misses=%-6d stale=%-4d hitRate=%.3f",
+                page, stats.hits(), stats.misses(), stats.staleRecoveries(), stats.hitRate())));
+        return out.toString();
+    }
+}
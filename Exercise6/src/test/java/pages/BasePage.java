@@ -2,12 +2,21 @@ package pages;
 
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.*;
+import utils.BrowserProfile;
+import utils.BrowserScripts;
+import utils.StepMetrics;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 public class BasePage {
+
     protected WebDriver driver;
     protected WebDriverWait wait;
+    private final String pageName = getClass().getSimpleName();
 
     public BasePage(WebDriver driver) {
         this.driver = driver;
@@ -15,24 +24,73 @@ public class BasePage {
     }
 
     protected WebElement waitForVisibility(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return step("wait:visibility", locator, () -> wait.until(ExpectedConditions.visibilityOfElementLocated(locator)));
     }
 
     protected void click(By locator) {
-        waitForVisibility(locator).click();
+        step("click", locator, () -> {
+            waitForVisibility(locator).click();
+            return null;
+        });
     }
 
     protected void type(By locator, String text) {
-        WebElement element = waitForVisibility(locator);
-        element.clear();
-        element.sendKeys(text);
+        step("type", locator, () -> {
+            WebElement element = waitForVisibility(locator);
+            element.clear();
+            element.sendKeys(text);
+            return null;
+        });
     }
 
     protected String getText(By locator) {
-        return waitForVisibility(locator).getText();
+        return step("getText", locator, () -> waitForVisibility(locator).getText());
+    }
+
+    protected JavascriptExecutor js() {
+        return (JavascriptExecutor) driver;
     }
 
     public void navigateTo(String url) {
-        driver.get(url);
+        step("navigate", url, () -> {
+            long start = System.nanoTime();
+            boolean timedOut = false;
+            try {
+                driver.get(url);
+            } catch (TimeoutException e) {
+                timedOut = true;
+                throw e;
+            } finally {
+                BrowserProfile.current().recordPageLoad(url, System.nanoTime() - start, timedOut);
+            }
+            return null;
+        });
+    }
+
+    /** Sets every field in one script call; see {@link #fillFields(Map, Set)}. */
+    protected void fillFields(Map<By, String> values) {
+        fillFields(values, Collections.emptySet());
+    }
+
+    /**
+     * Sets the value of every field in {@code values} with a single {@code executeScript}
+     * call instead of a clear and sendKeys round-trip per field, firing the input and
+     * change events a user would. Fields in {@code typedFields}, fields whose locator has no
+     * CSS or XPath form, and fields the script cannot find are typed key by key afterwards.
+     * Put fields with {@code minlength} or {@code maxlength} in {@code typedFields}: browsers
+     * only check those limits on values the user typed.
+     */
+    protected void fillFields(Map<By, String> values, Set<By> typedFields) {
+        step("fillFields", values.keySet(), () -> {
+            for (By locator : BrowserScripts.fill(js(), values, typedFields)) {
+                type(locator, values.get(locator));
+            }
+            return null;
+        });
+    }
+
+    /** Runs one page action, recording its latency in {@link StepMetrics} under this page and {@code target}. */
+    protected <T> T step(String action, Object target, Supplier<T> body) {
+        return StepMetrics.time(pageName, action, target, body);
     }
 }
@@ -4,6 +4,8 @@ import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.*;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class RegisterPage extends BasePage {
     public RegisterPage(WebDriver driver) {
@@ -37,6 +39,17 @@ public class RegisterPage extends BasePage {
         type(phoneField, phone);
     }
 
+    /** Điền cả form trong một lần gọi executeScript thay vì gõ từng ô. */
+    public void fillForm(String email, String fullName, String password, String confirmPassword, String phone) {
+        Map<By, String> fields = new LinkedHashMap<>();
+        fields.put(emailField, email);
+        fields.put(fullNameField, fullName);
+        fields.put(passwordField, password);
+        fields.put(confirmPasswordField, confirmPassword);
+        fields.put(phoneField, phone);
+        fillFields(fields);
+    }
+
     public void agreeToTerms() {
         JavascriptExecutor js = (JavascriptExecutor) driver;
         js.executeScript("document.getElementById('agreeTerms').checked = true;");
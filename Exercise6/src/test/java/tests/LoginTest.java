@@ -4,6 +4,7 @@ import org.testng.annotations.*;
 import org.openqa.selenium.WebDriver;
 import pages.LoginPage;
 import utils.DriverFactory;
+import utils.FixtureServer;
 
 public class LoginTest {
     WebDriver driver;
@@ -14,7 +15,7 @@ public class LoginTest {
         System.out.println("[Setup] Initializing WebDriver...");
         driver = DriverFactory.getDriver();
 
-        String loginUrl = "http://localhost:8080/Login";
+        String loginUrl = FixtureServer.resolveBaseUrl("http://localhost:8080") + "/Login";
         System.out.println("[Setup] Opening URL: " + loginUrl);
         driver.get(loginUrl);
         System.out.println("[Setup] Current URL: " + driver.getCurrentUrl());
@@ -35,9 +36,7 @@ public class LoginTest {
 
     @AfterMethod
     public void tearDown() {
-        System.out.println("[Teardown] Quitting driver...");
-        if (driver != null) {
-            driver.quit();
-        }
+        System.out.println("[Teardown] Returning driver to the pool...");
+        DriverFactory.quitDriver();
     }
 }
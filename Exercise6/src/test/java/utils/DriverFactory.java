@@ -1,25 +1,64 @@
 package utils;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
 
+/**
+ * Hands each test thread a browser from a shared {@link DriverPool}.
+ *
+ * <p>{@link #getDriver()} leases a browser for the calling thread and returns the same one
+ * until {@link #quitDriver()} gives it back, so TestNG classes can run in parallel without
+ * sharing a window. Pool settings come from system properties: {@code driver.pool.size}
+ * (default: number of cores), {@code driver.pool.maxUses} (default 20) and
+ * {@code driver.pool.warm} (browsers started up front, default 1). Browsers are launched
+ * with the {@link BrowserProfile} named by {@code browser.profile}.
+ */
 public class DriverFactory {
-    private static WebDriver driver;
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+
+    private static final class Holder {
+        static final DriverPool POOL = createPool();
+    }
 
     public static WebDriver getDriver() {
-        if (driver == null) {
-            WebDriverManager.chromedriver().setup(); // tự lo tải và cấu hình đúng
-            driver = new ChromeDriver();
-            driver.manage().window().maximize();
+        WebDriver current = driver.get();
+        if (current == null) {
+            current = Holder.POOL.acquire();
+            driver.set(current);
         }
-        return driver;
+        return current;
     }
 
+    /** Returns the calling thread's browser to the pool; the pool decides whether to quit it. */
     public static void quitDriver() {
-        if (driver != null) {
-            driver.quit();
-            driver = null;
+        WebDriver current = driver.get();
+        if (current != null) {
+            driver.remove();
+            Holder.POOL.release(current);
         }
     }
+
+    /** Starts a new, unpooled browser with the current profile. */
+    public static WebDriver createDriver() {
+        return createDriver(BrowserProfile.current());
+    }
+
+    public static WebDriver createDriver(BrowserProfile profile) {
+        DriverBinaries.chromeDriver();
+        long start = System.nanoTime();
+        WebDriver created = new ChromeDriver(profile.configure(new ChromeOptions()));
+        profile.afterStart(created);
+        profile.recordStartup(System.nanoTime() - start);
+        return created;
+    }
+
+    private static DriverPool createPool() {
+        int size = Integer.getInteger("driver.pool.size", Runtime.getRuntime().availableProcessors());
+        DriverPool pool = new DriverPool(DriverFactory::createDriver, size,
+                Integer.getInteger("driver.pool.maxUses", 20));
+        pool.warmUp(Integer.getInteger("driver.pool.warm", 1));
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "driver-pool-shutdown"));
+        return pool;
+    }
 }
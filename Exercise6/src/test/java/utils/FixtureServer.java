@@ -0,0 +1,219 @@
+package utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process HTTP server standing in for the web application on localhost:8080, so the
+ * suite runs without deploying it.
+ *
+ * <p>{@code /Login} accepts {@code student@example.com} / {@code 123456} and any account
+ * registered during the run, and redirects to {@code /Home}. {@code /Register/Student}
+ * validates the form on the server and either redirects to {@code /Login} or shows the
+ * errors with class {@code error}; registering an email again replaces its password. Tests pick their base URL through {@link #resolveBaseUrl}.
+ */
+public class FixtureServer {
+
+    private static final Map<String, String> FLASHES = Map.of(
+            "login-ok", message("success", "Login successful"),
+            "registered", message("success", "Registration successful. Please log in."),
+            "login-failed", message("error", "Invalid email or password"),
+            "not-logged-in", message("error", "Please log in first"));
+
+    private static FixtureServer shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, String> pages = new HashMap<>();
+    private final Map<String, String> passwords = new ConcurrentHashMap<>(Map.of("student@example.com", "123456"));
+
+    private FixtureServer() throws IOException {
+        for (String page : List.of("login", "register-student", "home")) {
+            pages.put(page, load("/fixtures/" + page + ".html"));
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "fixture-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * The base URL tests should use instead of {@code liveBaseUrl}, from the
+     * {@code base.url} system property: unset keeps the live site, {@code fixture} starts
+     * the embedded server, anything else is used as is.
+     */
+    public static String resolveBaseUrl(String liveBaseUrl) {
+        String configured = System.getProperty("base.url", "").trim();
+        if (configured.isEmpty()) return liveBaseUrl;
+        if (configured.equals("fixture")) return shared().baseUrl();
+        return configured.endsWith("/") ? configured.substring(0, configured.length() - 1) : configured;
+    }
+
+    /** The server shared by the whole run, started on first use and stopped when the JVM exits. */
+    public static synchronized FixtureServer shared() {
+        if (shared == null) {
+            try {
+                shared = new FixtureServer();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start the fixture server", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::stop, "fixture-server-shutdown"));
+        }
+        return shared;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            boolean post = exchange.getRequestMethod().equals("POST");
+            switch (path) {
+                case "/Login":
+                    if (!post) {
+                        sendPage(exchange, "login", takeFlash(exchange));
+                        break;
+                    }
+                    Map<String, String> login = readForm(exchange);
+                    String email = login.getOrDefault("email", "").trim().toLowerCase(Locale.ROOT);
+                    if (login.getOrDefault("password", "").equals(passwords.get(email))) {
+                        exchange.getResponseHeaders().add("Set-Cookie", "session=" + email + "; Path=/");
+                        redirect(exchange, "/Home", "login-ok");
+                    } else {
+                        redirect(exchange, "/Login", "login-failed");
+                    }
+                    break;
+                case "/Home":
+                    if (!cookies(exchange).containsKey("session")) {
+                        redirect(exchange, "/Login", "not-logged-in");
+                    } else {
+                        sendPage(exchange, "home", takeFlash(exchange));
+                    }
+                    break;
+                case "/Register/Student":
+                    if (!post) {
+                        sendPage(exchange, "register-student", "");
+                        break;
+                    }
+                    Map<String, String> form = readForm(exchange);
+                    List<String> errors = validateRegistration(form);
+                    if (errors.isEmpty()) {
+                        passwords.put(form.get("email").trim().toLowerCase(Locale.ROOT), form.get("password"));
+                        redirect(exchange, "/Login", "registered");
+                    } else {
+                        StringBuilder shown = new StringBuilder();
+                        for (String error : errors) shown.append(message("error", error));
+                        sendPage(exchange, "register-student", shown.toString());
+                    }
+                    break;
+                default:
+                    send(exchange, 404, "text/plain", "Not Found");
+            }
+        }
+    }
+
+    private List<String> validateRegistration(Map<String, String> form) {
+        List<String> errors = new ArrayList<>();
+        String email = form.getOrDefault("email", "").trim();
+        String password = form.getOrDefault("password", "");
+        if (!email.matches("[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+")) errors.add("Invalid email address");
+        if (form.getOrDefault("fullName", "").isBlank()) errors.add("Full name is required");
+        if (password.length() < 6) errors.add("Password must be at least 6 characters");
+        if (!password.equals(form.getOrDefault("confirmPassword", ""))) errors.add("Passwords do not match");
+        if (!form.getOrDefault("phone", "").trim().matches("0\\d{9}")) errors.add("Phone number must be 10 digits");
+        if (!form.containsKey("agreeTerms")) errors.add("You must agree to the terms and conditions");
+        return errors;
+    }
+
+    private void sendPage(HttpExchange exchange, String page, String flash) throws IOException {
+        send(exchange, 200, "text/html; charset=utf-8", pages.get(page).replace("{{flash}}", flash));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /** Redirects after a POST, carrying the flash message in a cookie. */
+    private static void redirect(HttpExchange exchange, String location, String flash) throws IOException {
+        if (flash != null) exchange.getResponseHeaders().add("Set-Cookie", "flash=" + flash + "; Path=/");
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(303, -1);
+    }
+
+    private static String takeFlash(HttpExchange exchange) {
+        String code = cookies(exchange).get("flash");
+        if (code == null) return "";
+        exchange.getResponseHeaders().add("Set-Cookie", "flash=; Path=/; Max-Age=0");
+        return FLASHES.getOrDefault(code, "");
+    }
+
+    private static Map<String, String> cookies(HttpExchange exchange) {
+        Map<String, String> cookies = new HashMap<>();
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String pair : header.split(";")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) cookies.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+            }
+        }
+        return cookies;
+    }
+
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            form.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return form;
+    }
+
+    private static String message(String cssClass, String text) {
+        return "<div class=\"" + cssClass + "\">" + text + "</div>";
+    }
+
+    private static String load(String resource) throws IOException {
+        try (InputStream in = FixtureServer.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IOException("Missing fixture " + resource);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
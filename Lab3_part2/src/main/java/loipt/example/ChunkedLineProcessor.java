@@ -0,0 +1,294 @@
+package loipt.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reads a file in large chunks through a {@link FileChannel} and hands the complete lines
+ * of each chunk to a {@link LineConsumer} on worker threads.
+ *
+ * <p>The calling thread only reads. It cuts each chunk after its last newline and carries
+ * the partial line over to the next chunk, so no line is split between batches. A line
+ * longer than a chunk grows that chunk's buffer. Workers find the line boundaries and
+ * record them as offsets in an {@code int[]} that the batch reuses. A consumer that works
+ * on the bytes therefore allocates nothing per line, and one that needs strings decodes
+ * only the lines it asks for.
+ *
+ * <p>Chunks live in a fixed set of direct buffers that go back to the pool once their
+ * batch is consumed. Memory stays at about {@code (workers + 2) * chunkSize}, plus the
+ * grown buffer of an over-long line while its batch is in flight: a grown buffer is
+ * dropped for one of {@code chunkSize} when it returns to the pool. The reader waits when
+ * the workers fall behind. With more than one worker, batches may be consumed out of
+ * order; each carries its sequence number and file offset. A single worker consumes
+ * them in file order. Lines are separated by {@code \n}, and a
+ * trailing {@code \r} is dropped.
+ */
+public class ChunkedLineProcessor {
+
+    /** Receives the lines of one chunk. Called from several worker threads at once. */
+    @FunctionalInterface
+    public interface LineConsumer {
+        void accept(LineBatch batch) throws Exception;
+    }
+
+    private final int chunkSize;
+    private final int workers;
+    private final Charset charset;
+
+    /**
+     * @param chunkSize bytes read from the file at a time
+     * @param workers   threads running the consumer
+     * @param charset   used by {@link LineBatch#line} to decode lines
+     */
+    public ChunkedLineProcessor(int chunkSize, int workers, Charset charset) {
+        if (chunkSize < 1 || workers < 1) throw new IllegalArgumentException("chunkSize and workers must be positive");
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.charset = charset;
+    }
+
+    public Summary process(Path file, LineConsumer consumer) throws IOException {
+        BlockingQueue<LineBatch> free = new ArrayBlockingQueue<>(workers + 2);
+        for (int i = 0; i < workers + 2; i++) free.add(new LineBatch(chunkSize, charset));
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "line-processor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        LongAdder lines = new LongAdder();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long start = System.nanoTime();
+        long bytes = 0;
+        long batches = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            LineBatch current = free.take();
+            long offset = 0;
+            while (failure.get() == null) {
+                ByteBuffer buffer = current.buffer;
+                int read = channel.read(buffer);
+                boolean eof = read < 0;
+                if (!eof) bytes += read;
+                if (buffer.hasRemaining() && !eof) continue;
+
+                int filled = buffer.position();
+                int cut = eof ? filled : lastNewline(buffer, filled) + 1;
+                if (cut == 0 && !eof) {
+                    // không có dòng nào kết thúc trong chunk: nới buffer rồi đọc tiếp
+                    current.grow(buffer.capacity() * 2);
+                    continue;
+                }
+
+                LineBatch next = eof ? null : free.take();
+                if (next != null) {
+                    next.carry(buffer, cut, filled);
+                }
+                if (cut > 0) {
+                    current.prepare(batches++, offset, cut);
+                    offset += cut;
+                    LineBatch batch = current;
+                    pool.execute(() -> {
+                        try {
+                            batch.findLines();
+                            consumer.accept(batch);
+                            lines.add(batch.size());
+                        } catch (Throwable t) {
+                            failure.compareAndSet(null, t);
+                        } finally {
+                            batch.reset();
+                            free.add(batch);
+                        }
+                    });
+                } else {
+                    current.reset();
+                    free.add(current);
+                }
+                if (eof) break;
+                current = next;
+            }
+            pool.shutdown();
+            while (!pool.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+                // chờ các batch còn lại
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Line processing interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Throwable cause = failure.get();
+        if (cause != null) {
+            if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Line consumer failed", cause);
+        }
+        return new Summary(bytes, lines.sum(), batches, System.nanoTime() - start);
+    }
+
+    private static int lastNewline(ByteBuffer buffer, int limit) {
+        for (int i = limit - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') return i;
+        }
+        return -1;
+    }
+
+    /**
+     * The complete lines of one chunk. Only valid inside {@link LineConsumer#accept}; the
+     * buffer is reused afterwards.
+     */
+    public static final class LineBatch {
+        private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+        private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+        private final Charset charset;
+        private final int chunkSize;
+        private ByteBuffer buffer;
+        private int[] bounds = new int[2048];
+        private int size;
+        private int length;
+        private long sequence;
+        private long fileOffset;
+
+        LineBatch(int chunkSize, Charset charset) {
+            this.chunkSize = chunkSize;
+            this.buffer = allocate(chunkSize);
+            this.charset = charset;
+        }
+
+        private static ByteBuffer allocate(int capacity) {
+            // little-endian để byte thấp nhất của getLong(i) là byte i
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /** Position of this chunk in the file, counting from 0. */
+        public long sequence() {
+            return sequence;
+        }
+
+        /** Offset in the file of this chunk's first byte. */
+        public long fileOffset() {
+            return fileOffset;
+        }
+
+        /** A read-only view of the chunk; lines are at {@link #start}..{@link #end} in it. */
+        public ByteBuffer bytes() {
+            return buffer.asReadOnlyBuffer().limit(length).position(0);
+        }
+
+        public int start(int line) {
+            return bounds[2 * line];
+        }
+
+        /** Exclusive end of {@code line}, without the line separator. */
+        public int end(int line) {
+            return bounds[2 * line + 1];
+        }
+
+        /** Decodes {@code line}; the only method here that allocates per line. */
+        public String line(int line) {
+            int start = start(line);
+            int length = end(line) - start;
+            byte[] bytes = new byte[length];
+            buffer.get(start, bytes, 0, length);
+            return new String(bytes, charset);
+        }
+
+        void prepare(long sequence, long fileOffset, int length) {
+            this.sequence = sequence;
+            this.fileOffset = fileOffset;
+            this.length = length;
+        }
+
+        void findLines() {
+            int count = 0;
+            int lineStart = 0;
+            int i = 0;
+            // 8 byte một lần: đánh dấu byte '\n' trong cả word rồi lấy lần lượt từng vị trí
+            for (; i + Long.BYTES <= length; i += Long.BYTES) {
+                long x = buffer.getLong(i) ^ NEWLINES;
+                long found = ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+                while (found != 0) {
+                    int newline = i + (Long.numberOfTrailingZeros(found) >>> 3);
+                    count = add(count, lineStart, newline);
+                    lineStart = newline + 1;
+                    found &= found - 1;
+                }
+            }
+            for (; i < length; i++) {
+                if (buffer.get(i) == '\n') {
+                    count = add(count, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (lineStart < length) count = add(count, lineStart, length);
+            size = count;
+        }
+
+        private int add(int count, int start, int end) {
+            if (end > start && buffer.get(end - 1) == '\r') end--;
+            if (2 * count + 2 > bounds.length) bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            bounds[2 * count] = start;
+            bounds[2 * count + 1] = end;
+            return count + 1;
+        }
+
+        /** Starts this (empty) batch with {@code from[start, end)}, the partial line after the last cut. */
+        void carry(ByteBuffer from, int start, int end) {
+            int remaining = end - start;
+            if (remaining > buffer.capacity()) grow(Math.max(buffer.capacity() * 2, remaining * 2));
+            buffer.put(from.duplicate().limit(end).position(start));
+        }
+
+        void grow(int capacity) {
+            ByteBuffer bigger = allocate(capacity);
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+
+        void reset() {
+            // buffer đã nới cho một dòng quá dài không được giữ lại trong pool
+            if (buffer.capacity() > chunkSize) buffer = allocate(chunkSize);
+            buffer.clear();
+            size = 0;
+            length = 0;
+        }
+    }
+
+    /** What one {@link #process} run read, and how fast. */
+    public record Summary(long bytes, long lines, long batches, long nanos) {
+
+        public double bytesPerSecond() {
+            return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+        }
+
+        public double linesPerSecond() {
+            return nanos == 0 ? 0 : lines * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d lines, %d bytes in %d batches, %.1f ms (%.1f MB/s, %.0f lines/s)",
+                    lines, bytes, batches, nanos / 1e6, bytesPerSecond() / (1024 * 1024), linesPerSecond());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package loipt.example;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Salted password hashes keyed by username, checked in constant time.
+ *
+ * <p>Passwords are hashed with PBKDF2WithHmacSHA256. Each record keeps its own salt
+ * and iteration count, so raising {@code credentials.iterations} (default 120000) only
+ * affects new hashes. Records hashed with fewer iterations are rehashed the next time
+ * their user logs in.
+ *
+ * <p>A successful login is cached for {@code credentials.cacheTtlSeconds} (default 300)
+ * as an HMAC of the username and password under a key that never leaves the process.
+ * Repeating the same login then costs one HMAC instead of a full PBKDF2 run. Failed
+ * logins are never cached, so guessing still pays the full hash cost. Unknown users are
+ * checked against a dummy record, so they take as long as a wrong password.
+ *
+ * <p>The file format is one {@code username:iterations:salt:hash} line per user
+ * (salt and hash in Base64); blank lines and lines starting with {@code #} are ignored.
+ */
+public final class CredentialStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialStore.class);
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int MAX_CACHED_SESSIONS = 10_000;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Map<String, Credential> credentials = new ConcurrentHashMap<>();
+    private final Map<String, VerifiedSession> sessions = new ConcurrentHashMap<>();
+    private final int iterations;
+    private final long sessionTtlNanos;
+    private final SecretKeySpec sessionKey;
+    private final Credential dummy;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder hashVerifications = new LongAdder();
+
+    public CredentialStore(int iterations, long sessionTtl, TimeUnit unit) {
+        if (iterations < 1) throw new IllegalArgumentException("iterations must be at least 1");
+        this.iterations = iterations;
+        this.sessionTtlNanos = unit.toNanos(sessionTtl);
+        byte[] key = new byte[32];
+        RANDOM.nextBytes(key);
+        this.sessionKey = new SecretKeySpec(key, "HmacSHA256");
+        this.dummy = Credential.create(new char[0], iterations);
+    }
+
+    /** A store with the cost and cache lifetime from {@code credentials.iterations} and {@code credentials.cacheTtlSeconds}. */
+    public static CredentialStore withDefaults() {
+        return new CredentialStore(Integer.getInteger("credentials.iterations", 120_000),
+                Long.getLong("credentials.cacheTtlSeconds", 300), TimeUnit.SECONDS);
+    }
+
+    /**
+     * The store used by {@link InsecureLogin}, loaded once. It reads the file named by
+     * {@code credentials.file} or {@code CREDENTIALS_FILE}. Without one, it holds a single
+     * "admin" user whose password comes from {@code ADMIN_PASSWORD}, as before.
+     */
+    public static CredentialStore shared() {
+        return Holder.SHARED;
+    }
+
+    private static final class Holder {
+        static final CredentialStore SHARED = loadShared();
+    }
+
+    private static CredentialStore loadShared() {
+        CredentialStore store = withDefaults();
+        String file = System.getProperty("credentials.file", System.getenv("CREDENTIALS_FILE"));
+        if (file != null && !file.isBlank()) {
+            store.load(Paths.get(file));
+            logger.info("Loaded {} credentials from {}", store.size(), file);
+        } else if (System.getenv("ADMIN_PASSWORD") != null) {
+            store.put("admin", System.getenv("ADMIN_PASSWORD").toCharArray());
+        }
+        return store;
+    }
+
+    /** Adds the records in {@code file}, replacing users that already exist. */
+    public void load(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read credentials from " + file, e);
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split(":");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException(file + ":" + (i + 1) + ": expected username:iterations:salt:hash");
+            }
+            Credential credential;
+            try {
+                Base64.Decoder base64 = Base64.getDecoder();
+                credential = new Credential(Integer.parseInt(parts[1]), base64.decode(parts[2]), base64.decode(parts[3]));
+            } catch (IllegalArgumentException e) {
+                // NumberFormatException cũng là IllegalArgumentException
+                throw new IllegalArgumentException(file + ":" + (i + 1) + ": bad iterations or Base64: " + e.getMessage(), e);
+            }
+            if (credential.iterations < 1) {
+                throw new IllegalArgumentException(file + ":" + (i + 1) + ": iterations must be at least 1");
+            }
+            credentials.put(parts[0], credential);
+            sessions.remove(parts[0]);
+        }
+    }
+
+    /** Writes every record to {@code file} in the format {@link #load} reads. */
+    public void save(Path file) {
+        List<String> lines = new ArrayList<>();
+        Base64.Encoder base64 = Base64.getEncoder();
+        credentials.forEach((username, c) -> lines.add(username + ":" + c.iterations + ":"
+                + base64.encodeToString(c.salt) + ":" + base64.encodeToString(c.hash)));
+        try {
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write credentials to " + file, e);
+        }
+    }
+
+    /** Sets {@code username}'s password, hashed with a fresh salt. The caller may clear {@code password} afterwards. */
+    public void put(String username, char[] password) {
+        if (username.indexOf(':') >= 0) throw new IllegalArgumentException("username must not contain ':'");
+        credentials.put(username, Credential.create(password, iterations));
+        sessions.remove(username);
+    }
+
+    public void remove(String username) {
+        credentials.remove(username);
+        sessions.remove(username);
+    }
+
+    /** Whether {@code password} is {@code username}'s password. */
+    public boolean verify(String username, char[] password) {
+        if (username == null || password == null) return false;
+        byte[] token = sessionToken(username, password);
+        VerifiedSession session = sessions.get(username);
+        // phiên chỉ hợp lệ khi bản ghi đã kiểm tra vẫn là bản ghi hiện tại (mật khẩu chưa bị đổi/xóa)
+        if (session != null && System.nanoTime() < session.expiresAt
+                && credentials.get(username) == session.credential && MessageDigest.isEqual(session.token, token)) {
+            cacheHits.increment();
+            return true;
+        }
+
+        Credential credential = credentials.get(username);
+        hashVerifications.increment();
+        boolean valid = (credential != null ? credential : dummy).matches(password) && credential != null;
+        if (!valid) return false;
+
+        if (credential.iterations < iterations) {
+            Credential rehashed = Credential.create(password, iterations);
+            if (credentials.replace(username, credential, rehashed)) credential = rehashed;
+        }
+        if (sessions.size() >= MAX_CACHED_SESSIONS) evictExpired();
+        if (sessions.size() < MAX_CACHED_SESSIONS) {
+            sessions.put(username, new VerifiedSession(credential, token, System.nanoTime() + sessionTtlNanos));
+        }
+        return true;
+    }
+
+    public boolean verify(String username, String password) {
+        return password != null && verify(username, password.toCharArray());
+    }
+
+    public int size() {
+        return credentials.size();
+    }
+
+    /** Logins answered from the verified-session cache. */
+    public long cacheHits() {
+        return cacheHits.sum();
+    }
+
+    /** Logins that ran the full PBKDF2 hash. */
+    public long hashVerifications() {
+        return hashVerifications.sum();
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        sessions.values().removeIf(s -> now >= s.expiresAt);
+    }
+
+    private byte[] sessionToken(String username, char[] password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(sessionKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(new String(password).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static final class Credential {
+        final int iterations;
+        final byte[] salt;
+        final byte[] hash;
+
+        Credential(int iterations, byte[] salt, byte[] hash) {
+            this.iterations = iterations;
+            this.salt = salt;
+            this.hash = hash;
+        }
+
+        static Credential create(char[] password, int iterations) {
+            byte[] salt = new byte[SALT_BYTES];
+            RANDOM.nextBytes(salt);
+            return new Credential(iterations, salt, pbkdf2(password, salt, iterations));
+        }
+
+        boolean matches(char[] password) {
+            return MessageDigest.isEqual(hash, pbkdf2(password, salt, iterations));
+        }
+    }
+
+    private static byte[] pbkdf2(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static final class VerifiedSession {
+        final Credential credential;
+        final byte[] token;
+        final long expiresAt;
+
+        VerifiedSession(Credential credential, byte[] token, long expiresAt) {
+            this.credential = credential;
+            this.token = token;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
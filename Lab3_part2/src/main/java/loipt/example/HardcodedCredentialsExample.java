@@ -1,12 +1,14 @@
 package loipt.example;
-import java.util.logging.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class HardcodedCredentialsExample {
 
     // Tạo logger cho lớp này
-    private static final Logger logger = Logger.getLogger(HardcodedCredentialsExample.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(HardcodedCredentialsExample.class);
 
     public static void main(String[] args) {
+        LogBridge.install();
         String username = "admin";
         String password = "123456"; // hardcoded password
 
@@ -14,7 +16,7 @@ public class HardcodedCredentialsExample {
         if (authenticate(username, password)) {
             logger.info("Access granted");  // Thay thế System.out.println bằng logger
         } else {
-            logger.warning("Access denied"); // Thay thế System.out.println bằng logger
+            logger.warn("Access denied"); // Thay thế System.out.println bằng logger
         }
     }
 
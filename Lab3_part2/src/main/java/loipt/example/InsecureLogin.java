@@ -1,18 +1,38 @@
 package loipt.example;
-import java.util.logging.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 public class InsecureLogin {
-    private static final Logger logger = Logger.getLogger(InsecureLogin.class.getName());
-    public static void login(String username, String password) {
-        if (username.equals("admin") && password.equals(System.getenv("ADMIN_PASSWORD"))) {
+    private static final Logger logger = LoggerFactory.getLogger(InsecureLogin.class);
+    // Kiểm tra qua CredentialStore (hash có salt, so sánh thời gian hằng) thay vì so chuỗi với biến môi trường
+    public static boolean login(String username, String password) {
+        return login(username, password, LoginRateLimiter.LOCAL_SOURCE);
+    }
+    /** Như {@link #login(String, String)}, với {@code source} (ví dụ địa chỉ IP) dùng để giới hạn số lần thử. */
+    public static boolean login(String username, String password, String source) {
+        return attempt(username, password, source) == Result.SUCCESS;
+    }
+    /** Kết quả một lần thử: đúng, sai, hoặc bị bộ giới hạn từ chối trước khi kiểm tra mật khẩu. */
+    public enum Result { SUCCESS, FAILURE, REJECTED }
+    /** Như {@link #login(String, String, String)}, nhưng phân biệt lần thử bị từ chối với lần sai mật khẩu. */
+    public static Result attempt(String username, String password, String source) {
+        // Từ chối trước khi hash khi user hoặc nguồn đã vượt giới hạn
+        LoginRateLimiter.Decision decision = LoginRateLimiter.shared().admit(username, source);
+        if (decision != LoginRateLimiter.Decision.ALLOWED) {
+            logger.warn("Login rejected: {}", decision);
+            return Result.REJECTED;
+        }
+        if (CredentialStore.shared().verify(username, password)) {
             logger.info("Login successful");
+            return Result.SUCCESS;
         } else {
-            logger.warning("Login failed");
+            LoginRateLimiter.shared().recordFailure(username);
+            logger.warn("Login failed");
+            return Result.FAILURE;
         }
     }
     public void printUserInfo(String user) {
         if (user != null && !user.isEmpty()) {
-            logger.info("User: " + user);
+            logger.info("User: {}", user);
         }
     }
 }
-
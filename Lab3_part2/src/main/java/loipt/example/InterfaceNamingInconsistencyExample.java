@@ -4,15 +4,48 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 interface LoginHandler {
-    void login(String username, String password);
+    boolean login(String username, String password);
 }
 
 class LoginHandlerImpl implements LoginHandler {
     private static final Logger logger = LoggerFactory.getLogger(LoginHandlerImpl.class); // Tạo logger cho lớp này
 
+    private final CredentialStore credentials;
+    private final LoginRateLimiter limiter;
+
+    LoginHandlerImpl() {
+        this(CredentialStore.shared(), LoginRateLimiter.shared());
+    }
+
+    LoginHandlerImpl(CredentialStore credentials, LoginRateLimiter limiter) {
+        this.credentials = credentials;
+        this.limiter = limiter;
+    }
+
     @Override
-    public void login(String username, String password) {
-        // Thay thế System.out.println bằng logger
-        logger.info("Logging in with username: {} and password: {}", username, password);
+    public boolean login(String username, String password) {
+        return attempt(username, password) == InsecureLogin.Result.SUCCESS;
+    }
+
+    /** Như {@link #login(String, String)}, với {@code source} (ví dụ địa chỉ IP) dùng để giới hạn số lần thử. */
+    public boolean login(String username, String password, String source) {
+        return attempt(username, password, source) == InsecureLogin.Result.SUCCESS;
+    }
+
+    InsecureLogin.Result attempt(String username, String password) {
+        return attempt(username, password, LoginRateLimiter.LOCAL_SOURCE);
+    }
+
+    InsecureLogin.Result attempt(String username, String password, String source) {
+        LoginRateLimiter.Decision decision = limiter.admit(username, source);
+        if (decision != LoginRateLimiter.Decision.ALLOWED) {
+            logger.warn("Login for username: {} rejected: {}", username, decision);
+            return InsecureLogin.Result.REJECTED;
+        }
+        // Không ghi mật khẩu ra log
+        boolean success = credentials.verify(username, password);
+        if (!success) limiter.recordFailure(username);
+        logger.info("Login for username: {} {}", username, success ? "succeeded" : "failed");
+        return success ? InsecureLogin.Result.SUCCESS : InsecureLogin.Result.FAILURE;
     }
 }
@@ -0,0 +1,22 @@
+package loipt.example;
+
+import org.slf4j.bridge.SLF4JBridgeHandler;
+
+/**
+ * Sends {@code java.util.logging} records to SLF4J, so that JDK and library loggers
+ * go through the same asynchronous appenders as the rest of the module (see
+ * {@code logback.xml}). The JUL levels follow the logback levels, so disabled levels are
+ * dropped before a {@code LogRecord} is even created.
+ */
+public final class LogBridge {
+
+    private LogBridge() {
+    }
+
+    /** Replaces the JUL root handlers with the SLF4J bridge; later calls do nothing. */
+    public static synchronized void install() {
+        if (SLF4JBridgeHandler.isInstalled()) return;
+        SLF4JBridgeHandler.removeHandlersForRootLogger();
+        SLF4JBridgeHandler.install();
+    }
+}
@@ -0,0 +1,124 @@
+package loipt.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Pushes concurrent logins through {@link InsecureLogin} or {@link LoginHandler} with
+ * {@link LoadGenerator} and prints throughput and latency percentiles.
+ *
+ * <p>Settings are system properties:
+ * <ul>
+ *   <li>{@code load.target}: {@code insecure} (default) or {@code handler}</li>
+ *   <li>{@code load.concurrency} (default 64), {@code load.rampUpSeconds} (2) and
+ *       {@code load.durationSeconds} (10)</li>
+ *   <li>{@code load.users} (default 100) users and {@code load.sources} (256) source
+ *       addresses the attempts are spread over</li>
+ *   <li>{@code load.mix}: weights of valid, wrong-password and garbage attempts,
+ *       default {@code 60,25,15}</li>
+ * </ul>
+ * Unless {@code credentials.file} is set, the users are written to a temporary credentials
+ * file first. The hashing cost comes from {@code credentials.*} as usual.
+ *
+ * <p>The rate limiter is off for the run, since with the default limits nearly every
+ * attempt would be shed and the numbers would describe the limiter instead of the login
+ * path. Pass {@code -Dlogin.rate.enabled=true} (and {@code login.rate.*} limits) to
+ * measure the two together; attempts the limiter turns away are reported as shed,
+ * not as ok or failed.
+ */
+public class LoginLoad {
+
+    // Giống CatchGenericExceptionExample.getUserInput: chuỗi bất kỳ, chuỗi rỗng và null
+    private static final String[] GARBAGE_INPUTS = {"Hello World", "Java Spring", "Thymeleaf Template", "", null};
+
+    public static void main(String[] args) throws IOException {
+        int users = Integer.getInteger("load.users", 100);
+        int sources = Integer.getInteger("load.sources", 256);
+        String target = System.getProperty("load.target", "insecure");
+        int[] mix = parseMix(System.getProperty("load.mix", "60,25,15"));
+
+        if (System.getProperty("credentials.file") == null) {
+            System.setProperty("credentials.file", writeCredentials(users).toString());
+        }
+        if (System.getProperty("login.rate.enabled") == null) {
+            System.setProperty("login.rate.enabled", "false");
+        }
+        LogBridge.install();
+
+        Attempt attempt;
+        if (target.equals("handler")) {
+            LoginHandlerImpl handler = new LoginHandlerImpl(CredentialStore.shared(), LoginRateLimiter.shared());
+            attempt = handler::attempt;
+        } else if (target.equals("insecure")) {
+            attempt = InsecureLogin::attempt;
+        } else {
+            throw new IllegalArgumentException("Unknown load.target '" + target + "', expected insecure or handler");
+        }
+
+        LoadGenerator generator = new LoadGenerator(
+                Integer.getInteger("load.concurrency", 64),
+                Duration.ofSeconds(Integer.getInteger("load.rampUpSeconds", 2)),
+                Duration.ofSeconds(Integer.getInteger("load.durationSeconds", 10)))
+                .add("valid", mix[0], random -> {
+                    int user = random.nextInt(users);
+                    return expect(InsecureLogin.Result.SUCCESS,
+                            attempt.login("user" + user, "password" + user, source(random, sources)));
+                })
+                .add("wrong-password", mix[1], random -> {
+                    int user = random.nextInt(users);
+                    return expect(InsecureLogin.Result.FAILURE,
+                            attempt.login("user" + user, "wrong" + random.nextInt(), source(random, sources)));
+                })
+                .add("garbage", mix[2], random -> expect(InsecureLogin.Result.FAILURE,
+                        attempt.login(pick(random), pick(random), source(random, sources))));
+
+        System.out.println("Generating load on " + target + "...");
+        LoadGenerator.Report report = generator.run();
+        System.out.print(report);
+        System.out.println(LoginRateLimiter.shared());
+        CredentialStore store = CredentialStore.shared();
+        System.out.println("CredentialStore[hashVerifications=" + store.hashVerifications()
+                + ", cacheHits=" + store.cacheHits() + "]");
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        InsecureLogin.Result login(String username, String password, String source);
+    }
+
+    private static LoadGenerator.Outcome expect(InsecureLogin.Result expected, InsecureLogin.Result actual) {
+        if (actual == InsecureLogin.Result.REJECTED) return LoadGenerator.Outcome.SHED;
+        return LoadGenerator.Outcome.of(actual == expected);
+    }
+
+    private static Path writeCredentials(int users) throws IOException {
+        CredentialStore store = CredentialStore.withDefaults();
+        for (int i = 0; i < users; i++) {
+            store.put("user" + i, ("password" + i).toCharArray());
+        }
+        Path file = Files.createTempFile("load-credentials", ".txt");
+        file.toFile().deleteOnExit();
+        store.save(file);
+        return file;
+    }
+
+    private static String source(Random random, int sources) {
+        int n = random.nextInt(sources);
+        return "10.0." + (n >> 8) + "." + (n & 0xff);
+    }
+
+    private static String pick(Random random) {
+        return GARBAGE_INPUTS[random.nextInt(GARBAGE_INPUTS.length)];
+    }
+
+    private static int[] parseMix(String mix) {
+        String[] parts = mix.split(",");
+        if (parts.length != 3) throw new IllegalArgumentException("load.mix needs three weights, got '" + mix + "'");
+        int[] weights = new int[3];
+        for (int i = 0; i < 3; i++) weights[i] = Integer.parseInt(parts[i].trim());
+        return weights;
+    }
+}
@@ -0,0 +1,322 @@
+package loipt.example;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for login attempts, checked before any password hashing.
+ *
+ * <p>Each source (for example an IP address) and each username has a token bucket. An
+ * attempt takes one token from both and is shed when either bucket is empty. A failed
+ * login also takes {@code failurePenalty} extra tokens from the user's bucket, so repeated
+ * wrong passwords lock that user out until the bucket refills. The lockout does not touch
+ * other users sharing the same source. An attempt whose source is unknown ({@code null},
+ * empty or {@link #LOCAL_SOURCE}) is limited by user only: charging all of them to one
+ * bucket would let a single user's traffic lock everyone else out.
+ *
+ * <p>A bucket's state (tokens in 1/1024ths and the time of the last refill) is packed
+ * into one {@code long} and updated with compare-and-set, so an attempt never blocks.
+ * Buckets live in a {@link ConcurrentHashMap}. A timing wheel of {@link #WHEEL_SLOTS}
+ * slots removes buckets that have been idle long enough to refill completely, since they
+ * behave exactly like new ones. This keeps memory bounded by the number of active keys
+ * while a credential-stuffing run sprays usernames. The sweep is spread over attempts:
+ * each one looks at no more than {@link #SWEEP_BUDGET} keys per wheel, so a slot that
+ * filled up during a spray never makes a single attempt pay for all of it.
+ */
+public final class LoginRateLimiter {
+
+    /** Why an attempt was rejected, or {@link #ALLOWED}. */
+    public enum Decision {
+        ALLOWED, SOURCE_LIMITED, USER_LIMITED
+    }
+
+    /** Source used when the caller does not know where an attempt came from; it has no bucket of its own. */
+    public static final String LOCAL_SOURCE = "local";
+
+    static final int WHEEL_SLOTS = 64;
+    static final int SWEEP_BUDGET = 32;
+    private static final int FRACTION_BITS = 10;
+    private static final long ONE_TOKEN = 1L << FRACTION_BITS;
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+    private final Limit userLimit;
+    private final Limit sourceLimit;
+    private final long failurePenalty;
+    private final LongSupplier clock;
+    private final long epoch;
+    private final boolean enabled;
+
+    private final Map<String, Bucket> users = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> sources = new ConcurrentHashMap<>();
+    private final Wheel userWheel;
+    private final Wheel sourceWheel;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shedBySource = new LongAdder();
+    private final LongAdder shedByUser = new LongAdder();
+    private final LongAdder penalties = new LongAdder();
+
+    /**
+     * @param clock milliseconds, e.g. {@code System::currentTimeMillis}
+     */
+    public LoginRateLimiter(int userCapacity, int userPerMinute, int sourceCapacity, int sourcePerMinute,
+                            int failurePenalty, LongSupplier clock) {
+        this(userCapacity, userPerMinute, sourceCapacity, sourcePerMinute, failurePenalty, clock, true);
+    }
+
+    private LoginRateLimiter(int userCapacity, int userPerMinute, int sourceCapacity, int sourcePerMinute,
+                             int failurePenalty, LongSupplier clock, boolean enabled) {
+        this.enabled = enabled;
+        this.userLimit = new Limit(userCapacity, userPerMinute);
+        this.sourceLimit = new Limit(sourceCapacity, sourcePerMinute);
+        if (failurePenalty < 0) throw new IllegalArgumentException("failurePenalty must not be negative");
+        this.failurePenalty = failurePenalty * ONE_TOKEN;
+        this.clock = clock;
+        this.epoch = clock.getAsLong();
+        this.userWheel = new Wheel(users, userLimit.idleMillis);
+        this.sourceWheel = new Wheel(sources, sourceLimit.idleMillis);
+    }
+
+    /**
+     * A limiter configured from {@code login.rate.user.capacity} (default 5),
+     * {@code login.rate.user.perMinute} (10), {@code login.rate.source.capacity} (50),
+     * {@code login.rate.source.perMinute} (300) and {@code login.rate.failurePenalty} (1).
+     * With {@code login.rate.enabled=false} it is {@link #disabled()} instead.
+     */
+    public static LoginRateLimiter withDefaults() {
+        if (!Boolean.parseBoolean(System.getProperty("login.rate.enabled", "true"))) return disabled();
+        return new LoginRateLimiter(
+                Integer.getInteger("login.rate.user.capacity", 5),
+                Integer.getInteger("login.rate.user.perMinute", 10),
+                Integer.getInteger("login.rate.source.capacity", 50),
+                Integer.getInteger("login.rate.source.perMinute", 300),
+                Integer.getInteger("login.rate.failurePenalty", 1),
+                System::currentTimeMillis);
+    }
+
+    /** A limiter that admits every attempt and only counts them, e.g. for load tests of the login path itself. */
+    public static LoginRateLimiter disabled() {
+        return new LoginRateLimiter(1, 1, 1, 1, 0, System::currentTimeMillis, false);
+    }
+
+    /** The limiter in front of {@link InsecureLogin} and {@code LoginHandlerImpl}. */
+    public static LoginRateLimiter shared() {
+        return Holder.SHARED;
+    }
+
+    private static final class Holder {
+        static final LoginRateLimiter SHARED = withDefaults();
+    }
+
+    /** Takes a token for this attempt from the source's and the user's bucket. */
+    public Decision admit(String username, String source) {
+        if (!enabled) {
+            admitted.increment();
+            return Decision.ALLOWED;
+        }
+        long now = clock.getAsLong() - epoch;
+        if (isKnown(source) && !bucket(sources, sourceWheel, source, now).take(ONE_TOKEN, sourceLimit, now)) {
+            shedBySource.increment();
+            return Decision.SOURCE_LIMITED;
+        }
+        if (!bucket(users, userWheel, username, now).take(ONE_TOKEN, userLimit, now)) {
+            shedByUser.increment();
+            return Decision.USER_LIMITED;
+        }
+        admitted.increment();
+        return Decision.ALLOWED;
+    }
+
+    /** Charges {@code username} the failure penalty after a wrong password. */
+    public void recordFailure(String username) {
+        if (failurePenalty == 0 || !enabled) return;
+        long now = clock.getAsLong() - epoch;
+        bucket(users, userWheel, username, now).drain(failurePenalty, userLimit, now);
+        penalties.increment();
+    }
+
+    public long admitted() {
+        return admitted.sum();
+    }
+
+    public long shedBySource() {
+        return shedBySource.sum();
+    }
+
+    public long shedByUser() {
+        return shedByUser.sum();
+    }
+
+    public long shed() {
+        return shedBySource.sum() + shedByUser.sum();
+    }
+
+    /** Number of user and source buckets currently held. */
+    public int trackedKeys() {
+        return users.size() + sources.size();
+    }
+
+    @Override
+    public String toString() {
+        return "LoginRateLimiter[" + (enabled ? "" : "disabled, ") + "admitted=" + admitted() + ", shedBySource=" + shedBySource()
+                + ", shedByUser=" + shedByUser() + ", penalties=" + penalties.sum()
+                + ", users=" + users.size() + ", sources=" + sources.size() + "]";
+    }
+
+    private static boolean isKnown(String source) {
+        return source != null && !source.isEmpty() && !source.equals(LOCAL_SOURCE);
+    }
+
+    private static Bucket bucket(Map<String, Bucket> buckets, Wheel wheel, String key, long now) {
+        String k = key == null ? "" : key;
+        wheel.advance(now);
+        Bucket bucket = buckets.get(k);
+        if (bucket == null) bucket = buckets.computeIfAbsent(k, x -> new Bucket(now));
+        wheel.schedule(k, bucket, now);
+        return bucket;
+    }
+
+    /** Capacity and refill rate, in 1/1024 tokens. */
+    private static final class Limit {
+        final long capacity;
+        final double perMilli;
+        final long idleMillis;
+
+        Limit(int capacity, int perMinute) {
+            if (capacity < 1 || capacity > (TOKEN_MASK >> FRACTION_BITS)) {
+                throw new IllegalArgumentException("capacity must be between 1 and " + (TOKEN_MASK >> FRACTION_BITS));
+            }
+            if (perMinute < 1) throw new IllegalArgumentException("perMinute must be at least 1");
+            this.capacity = capacity * ONE_TOKEN;
+            this.perMilli = perMinute * ONE_TOKEN / 60_000.0;
+            this.idleMillis = (long) Math.ceil(this.capacity / perMilli);
+        }
+    }
+
+    private static final class Bucket extends AtomicLong {
+        // ô của timing wheel mà bucket đang nằm, để không thêm key vào cùng một ô nhiều lần
+        volatile long scheduledTick = -1;
+
+        Bucket(long now) {
+            super(pack(-1, now));
+        }
+
+        /** Takes {@code amount} if the bucket holds at least that much. */
+        boolean take(long amount, Limit limit, long now) {
+            while (true) {
+                long state = get();
+                long tokens = refill(state, limit, now);
+                if (tokens < amount) return false;
+                if (compareAndSet(state, pack(tokens - amount, now))) return true;
+            }
+        }
+
+        /** Takes up to {@code amount}, leaving the bucket empty if it holds less. */
+        void drain(long amount, Limit limit, long now) {
+            while (true) {
+                long state = get();
+                long tokens = Math.max(0, refill(state, limit, now) - amount);
+                if (compareAndSet(state, pack(tokens, now))) return;
+            }
+        }
+
+        long lastRefill() {
+            return get() >>> TOKEN_BITS;
+        }
+
+        private static long refill(long state, Limit limit, long now) {
+            long tokens = state & TOKEN_MASK;
+            // TOKEN_MASK đánh dấu bucket mới tạo, coi như đầy
+            if (tokens == TOKEN_MASK) return limit.capacity;
+            long elapsed = Math.max(0, now - (state >>> TOKEN_BITS));
+            return (long) Math.min(limit.capacity, tokens + elapsed * limit.perMilli);
+        }
+
+        private static long pack(long tokens, long now) {
+            return (now << TOKEN_BITS) | (tokens & TOKEN_MASK);
+        }
+    }
+
+    /**
+     * Remembers which keys were touched in which tick and, once a slot comes round again,
+     * removes the ones that have stayed idle for {@code idleMillis}. A slot that is only
+     * partly swept is picked up again by the next call.
+     */
+    private static final class Wheel {
+        private final Map<String, Bucket> buckets;
+        private final long idleMillis;
+        private final long tickMillis;
+        private final Set<String>[] slots;
+        private final AtomicBoolean sweeping = new AtomicBoolean();
+        // ghi khi đang giữ cờ sweeping; volatile để advance kiểm tra nhanh không cần cờ
+        private volatile long sweptTick;
+        private Iterator<String> cursor;
+
+        @SuppressWarnings("unchecked")
+        Wheel(Map<String, Bucket> buckets, long idleMillis) {
+            this.buckets = buckets;
+            this.idleMillis = idleMillis;
+            this.tickMillis = Math.max(1, (idleMillis + WHEEL_SLOTS - 1) / WHEEL_SLOTS);
+            this.slots = new Set[WHEEL_SLOTS];
+            for (int i = 0; i < WHEEL_SLOTS; i++) slots[i] = ConcurrentHashMap.newKeySet();
+        }
+
+        void schedule(String key, Bucket bucket, long now) {
+            long tick = now / tickMillis;
+            if (bucket.scheduledTick != tick) {
+                bucket.scheduledTick = tick;
+                slots[(int) (tick % WHEEL_SLOTS)].add(key);
+            }
+        }
+
+        /**
+         * Sweeps up to {@link #SWEEP_BUDGET} keys of the slots whose time has come. Only the
+         * thread that wins the flag does the work; the others return at once.
+         */
+        void advance(long now) {
+            long tick = now / tickMillis;
+            if (tick <= sweptTick || !sweeping.compareAndSet(false, true)) return;
+            try {
+                long done = sweptTick;
+                if (tick - done > WHEEL_SLOTS) {
+                    // bị tụt quá một vòng: các ô cũ hơn đã được quét lại ở vòng sau
+                    done = tick - WHEEL_SLOTS;
+                    cursor = null;
+                }
+                int budget = SWEEP_BUDGET;
+                while (done < tick && budget > 0) {
+                    long t = done + 1;
+                    if (cursor == null) cursor = slots[(int) (t % WHEEL_SLOTS)].iterator();
+                    while (budget > 0 && cursor.hasNext()) {
+                        budget--;
+                        String key = cursor.next();
+                        Bucket bucket = buckets.get(key);
+                        if (bucket == null) {
+                            cursor.remove();
+                        } else if (now - bucket.lastRefill() >= idleMillis) {
+                            cursor.remove();
+                            buckets.remove(key, bucket);
+                        } else if (bucket.scheduledTick % WHEEL_SLOTS != t % WHEEL_SLOTS) {
+                            // đã được lên lịch ở ô khác sau lần dùng gần nhất
+                            cursor.remove();
+                        }
+                    }
+                    if (!cursor.hasNext()) {
+                        cursor = null;
+                        done = t;
+                    }
+                }
+                sweptTick = done;
+            } finally {
+                sweeping.set(false);
+            }
+        }
+    }
+}
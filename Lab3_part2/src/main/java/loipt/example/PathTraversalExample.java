@@ -1,14 +1,16 @@
 package loipt.example;
 
 import java.io.*;
-import java.util.logging.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class PathTraversalExample {
 
     // Tạo logger cho lớp này
-    private static final Logger logger = Logger.getLogger(PathTraversalExample.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(PathTraversalExample.class);
 
     public static void main(String[] args) throws IOException {
+        LogBridge.install();
         String userInput = "../secret.txt";
         File file = new File(userInput);
 
@@ -16,7 +18,7 @@ public class PathTraversalExample {
             BufferedReader reader = new BufferedReader(new FileReader(file));
 
             // Thay thế System.out.println bằng logger
-            logger.info("Reading file: " + file.getPath());  // Sử dụng logger thay vì System.out.println
+            logger.info("Reading file: {}", file.getPath());  // Sử dụng logger thay vì System.out.println
             reader.close();
         }
     }
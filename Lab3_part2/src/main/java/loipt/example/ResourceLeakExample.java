@@ -1,22 +1,35 @@
 package loipt.example;
 
-import java.io.*;
-import java.util.logging.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 
 public class ResourceLeakExample {
 
     // Tạo logger cho lớp này
-    private static final Logger logger = Logger.getLogger(ResourceLeakExample.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(ResourceLeakExample.class);
 
     public static void main(String[] args) {
-        // Sử dụng try-with-resources để tự động đóng BufferedReader
-        try (BufferedReader reader = new BufferedReader(new FileReader("data.txt"))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                logger.info(line);  // Thay thế System.out.println bằng logger
-            }
+        LogBridge.install();
+        // Đọc file theo từng chunk lớn qua FileChannel (UTF-8), các dòng được xử lý trên worker thread.
+        // Mặc định 1 worker để các dòng được ghi log theo đúng thứ tự trong file
+        ChunkedLineProcessor processor = new ChunkedLineProcessor(
+                Integer.getInteger("lines.chunkSize", 4 * 1024 * 1024),
+                Integer.getInteger("lines.workers", 1),
+                StandardCharsets.UTF_8);
+        try {
+            ChunkedLineProcessor.Summary summary = processor.process(Paths.get("data.txt"), batch -> {
+                if (!logger.isInfoEnabled()) return;
+                for (int i = 0; i < batch.size(); i++) {
+                    logger.info("{}", batch.line(i));  // Thay thế System.out.println bằng logger
+                }
+            });
+            logger.info("Read data.txt: {}", summary);
         } catch (IOException e) {
-            logger.severe("Error reading file: " + e.getMessage());  // Ghi log lỗi khi đọc file
+            logger.error("Error reading file: {}", e.getMessage());  // Ghi log lỗi khi đọc file
         }
     }
 }
@@ -1,17 +1,19 @@
 package loipt.example;
 
-import java.util.logging.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 interface Drawable {
     void draw();
 }
 
 class Circle implements Drawable {
+    private static final Logger logger = LoggerFactory.getLogger(Circle.class);
+
     // Cài đặt phương thức draw() trong lớp Circle
     @Override
     public void draw() {
         // Thay thế System.out.println bằng logger
-        Logger logger = Logger.getLogger(Circle.class.getName());
         logger.info("Drawing a circle");
     }
 }
@@ -0,0 +1,123 @@
+
+import loipt.example.ChunkedLineProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChunkedLineProcessorTest {
+
+    @Test
+    void testLinesAcrossChunkBoundaries() throws IOException {
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String line = "dòng " + i + " " + "x".repeat(i % 37);
+            expected.add(line);
+            content.append(line).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        // một dòng dài hơn chunk và dòng cuối không có ký tự xuống dòng
+        expected.add("y".repeat(200));
+        content.append("y".repeat(200)).append('\n');
+        expected.add("last");
+        content.append("last");
+
+        Path file = write(content.toString());
+        try {
+            List<String> lines = readAll(new ChunkedLineProcessor(64, 4, StandardCharsets.UTF_8), file);
+            assertEquals(expected, lines);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testSingleWorkerConsumesInFileOrder() throws IOException {
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            // dòng 100 dài hơn chunk nên buffer phải nới rồi trả về kích thước cũ
+            String line = i == 100 ? "z".repeat(500) : "line " + i;
+            expected.add(line);
+            content.append(line).append('\n');
+        }
+        Path file = write(content.toString());
+        try {
+            List<String> lines = new ArrayList<>();
+            new ChunkedLineProcessor(64, 1, StandardCharsets.UTF_8).process(file, batch -> {
+                for (int i = 0; i < batch.size(); i++) lines.add(batch.line(i));
+            });
+            assertEquals(expected, lines);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testSummaryCountsBytesAndLines() throws IOException {
+        Path file = write("a\n\nb\n");
+        try {
+            ChunkedLineProcessor.Summary summary = new ChunkedLineProcessor(1024, 2, StandardCharsets.UTF_8)
+                    .process(file, batch -> { });
+            assertEquals(5, summary.bytes());
+            assertEquals(3, summary.lines());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        Path file = write("");
+        try {
+            assertEquals(List.of(), readAll(new ChunkedLineProcessor(16, 2, StandardCharsets.UTF_8), file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testConsumerFailureIsReported() throws IOException {
+        Path file = write("a\nb\n");
+        try {
+            ChunkedLineProcessor processor = new ChunkedLineProcessor(16, 2, StandardCharsets.UTF_8);
+            IOException e = assertThrows(IOException.class, () -> processor.process(file, batch -> {
+                throw new IllegalStateException("boom");
+            }));
+            assertEquals("boom", e.getCause().getMessage());
+            assertThrows(NoSuchFileException.class, () -> processor.process(file.resolveSibling("missing.txt"), batch -> { }));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<String> readAll(ChunkedLineProcessor processor, Path file) throws IOException {
+        Map<Long, List<String>> batches = new TreeMap<>();
+        processor.process(file, batch -> {
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) lines.add(batch.line(i));
+            synchronized (batches) {
+                batches.put(batch.sequence(), lines);
+            }
+        });
+        List<String> all = new ArrayList<>();
+        batches.values().forEach(all::addAll);
+        return all;
+    }
+
+    private static Path write(String content) throws IOException {
+        Path file = Files.createTempFile("lines", ".txt");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
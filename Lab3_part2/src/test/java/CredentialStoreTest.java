@@ -0,0 +1,90 @@
+
+import loipt.example.CredentialStore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CredentialStoreTest {
+
+    @Test
+    void testVerifyPassword() {
+        CredentialStore store = new CredentialStore(1_000, 60, TimeUnit.SECONDS);
+        store.put("admin", "123456".toCharArray());
+
+        assertTrue(store.verify("admin", "123456"));
+        assertFalse(store.verify("admin", "wrongpassword"));
+        assertFalse(store.verify("user", "123456"));
+        assertFalse(store.verify("admin", (String) null));
+    }
+
+    @Test
+    void testRepeatedLoginUsesSessionCache() {
+        CredentialStore store = new CredentialStore(1_000, 60, TimeUnit.SECONDS);
+        store.put("admin", "123456".toCharArray());
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(store.verify("admin", "123456"));
+        }
+        assertEquals(1, store.hashVerifications());
+        assertEquals(4, store.cacheHits());
+
+        // mật khẩu sai không được trả lời từ cache
+        assertFalse(store.verify("admin", "1234567"));
+        assertEquals(2, store.hashVerifications());
+    }
+
+    @Test
+    void testChangedPasswordInvalidatesCache() {
+        CredentialStore store = new CredentialStore(1_000, 60, TimeUnit.SECONDS);
+        store.put("admin", "123456".toCharArray());
+        assertTrue(store.verify("admin", "123456"));
+
+        store.put("admin", "654321".toCharArray());
+        assertFalse(store.verify("admin", "123456"));
+        assertTrue(store.verify("admin", "654321"));
+    }
+
+    @Test
+    void testSaveAndLoad() throws Exception {
+        CredentialStore store = new CredentialStore(1_000, 60, TimeUnit.SECONDS);
+        store.put("admin", "123456".toCharArray());
+        store.put("user", "password".toCharArray());
+        Path file = Files.createTempFile("credentials", ".txt");
+        try {
+            store.save(file);
+            assertFalse(Files.readString(file).contains("123456"));
+
+            CredentialStore loaded = new CredentialStore(1_000, 60, TimeUnit.SECONDS);
+            loaded.load(file);
+            assertEquals(2, loaded.size());
+            assertTrue(loaded.verify("user", "password"));
+            assertFalse(loaded.verify("user", "123456"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testLoadReportsBadLine() throws Exception {
+        Path file = Files.createTempFile("credentials", ".txt");
+        try {
+            Files.writeString(file, "# users\nadmin:many:AAAA:AAAA\n");
+            CredentialStore store = new CredentialStore(1_000, 60, TimeUnit.SECONDS);
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> store.load(file));
+            assertTrue(e.getMessage().startsWith(file + ":2:"), e.getMessage());
+
+            Files.writeString(file, "admin:1000:not-base64!:AAAA\n");
+            e = assertThrows(IllegalArgumentException.class, () -> store.load(file));
+            assertTrue(e.getMessage().startsWith(file + ":1:"), e.getMessage());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+
+import loipt.example.LoginRateLimiter;
+import loipt.example.LoginRateLimiter.Decision;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    // user: 3 lần, hồi 6 lần/phút (1 token mỗi 10 giây); nguồn: 5 lần, hồi 60 lần/phút
+    private LoginRateLimiter limiter(int failurePenalty) {
+        return new LoginRateLimiter(3, 6, 5, 60, failurePenalty, now::get);
+    }
+
+    @Test
+    void testUserBucketShedsAfterCapacity() {
+        LoginRateLimiter limiter = limiter(0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Decision.ALLOWED, limiter.admit("admin", "10.0.0.1"));
+        }
+        assertEquals(Decision.USER_LIMITED, limiter.admit("admin", "10.0.0.1"));
+        assertEquals(Decision.ALLOWED, limiter.admit("user", "10.0.0.1"));
+        assertEquals(1, limiter.shedByUser());
+
+        now.addAndGet(10_000);
+        assertEquals(Decision.ALLOWED, limiter.admit("admin", "10.0.0.2"));
+        assertEquals(Decision.USER_LIMITED, limiter.admit("admin", "10.0.0.2"));
+    }
+
+    @Test
+    void testSourceBucketShedsSprayedUsernames() {
+        LoginRateLimiter limiter = limiter(0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Decision.ALLOWED, limiter.admit("user" + i, "10.0.0.1"));
+        }
+        assertEquals(Decision.SOURCE_LIMITED, limiter.admit("user5", "10.0.0.1"));
+        assertEquals(Decision.ALLOWED, limiter.admit("user5", "10.0.0.2"));
+        assertEquals(1, limiter.shedBySource());
+        assertEquals(6, limiter.admitted());
+    }
+
+    @Test
+    void testUnknownSourceLimitsByUserOnly() {
+        LoginRateLimiter limiter = limiter(0);
+        // nhiều user khác nhau không rõ nguồn không được dùng chung một bucket
+        for (int i = 0; i < 200; i++) {
+            assertEquals(Decision.ALLOWED, limiter.admit("user" + i, LoginRateLimiter.LOCAL_SOURCE));
+            assertEquals(Decision.ALLOWED, limiter.admit("guest" + i, null));
+        }
+        assertEquals(400, limiter.admitted());
+        assertEquals(0, limiter.shedBySource());
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(Decision.ALLOWED, limiter.admit("user0", LoginRateLimiter.LOCAL_SOURCE));
+        }
+        assertEquals(Decision.USER_LIMITED, limiter.admit("user0", LoginRateLimiter.LOCAL_SOURCE));
+    }
+
+    @Test
+    void testFailuresLockOutUser() {
+        LoginRateLimiter limiter = limiter(1);
+        assertEquals(Decision.ALLOWED, limiter.admit("admin", "10.0.0.1"));
+        limiter.recordFailure("admin");
+        // 1 token cho lần thử + 1 token phạt: chỉ còn đúng 1 lần
+        assertEquals(Decision.ALLOWED, limiter.admit("admin", "10.0.0.1"));
+        assertEquals(Decision.USER_LIMITED, limiter.admit("admin", "10.0.0.1"));
+
+        now.addAndGet(30_000);
+        assertEquals(Decision.ALLOWED, limiter.admit("admin", "10.0.0.1"));
+    }
+
+    @Test
+    void testIdleBucketsExpire() {
+        LoginRateLimiter limiter = limiter(0);
+        for (int i = 0; i < 100; i++) {
+            limiter.admit("user" + i, "10.0.0." + i);
+            now.addAndGet(10);
+        }
+        assertEquals(200, limiter.trackedKeys());
+
+        // sau khi bucket của user đầy lại (30 giây) và quay hết một vòng wheel, bucket cũ bị dọn
+        now.addAndGet(61_000);
+        limiter.admit("admin", "10.0.1.1");
+        // mỗi lần thử chỉ quét tối đa SWEEP_BUDGET key mỗi wheel, phần còn lại để các lần sau
+        int swept = 202 - limiter.trackedKeys();
+        assertTrue(swept > 0 && swept <= 2 * 32, "swept " + swept + " keys at once");
+        for (int i = 0; i < 20; i++) {
+            now.addAndGet(1_000);
+            limiter.admit("admin", "10.0.1.1");
+        }
+        assertEquals(2, limiter.trackedKeys());
+    }
+}
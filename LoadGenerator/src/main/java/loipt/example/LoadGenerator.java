@@ -0,0 +1,293 @@
+package loipt.example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load generator: {@code concurrency} workers each call a weighted mix of
+ * operations back to back for {@code duration}, and the latency of every call is recorded.
+ *
+ * <p>Each worker is one platform thread, and workers start evenly spread over
+ * {@code rampUp}. Only calls that start after the ramp-up count
+ * towards throughput and latency, so the cold start does not skew the numbers.
+ *
+ * <p>Each worker records into its own {@link Histogram}, and they are merged at the end,
+ * so the harness adds no contention of its own to the services under test.
+ */
+public class LoadGenerator {
+
+    /** One call to the service under test; returns how it ended. */
+    @FunctionalInterface
+    public interface Operation {
+        Outcome call(Random random) throws Exception;
+    }
+
+    /**
+     * How a call ended. {@link #SHED} is for calls the service turned away before doing
+     * the work (a rate limiter, a full queue), so they count as neither ok nor failed.
+     */
+    public enum Outcome {
+        OK, FAILED, SHED;
+
+        public static Outcome of(boolean ok) {
+            return ok ? OK : FAILED;
+        }
+    }
+
+    private final int concurrency;
+    private final Duration rampUp;
+    private final Duration duration;
+    private final List<String> names = new ArrayList<>();
+    private final List<Operation> operations = new ArrayList<>();
+    private int[] cumulativeWeights = new int[0];
+
+    public LoadGenerator(int concurrency, Duration rampUp, Duration duration) {
+        if (concurrency < 1) throw new IllegalArgumentException("concurrency must be at least 1");
+        if (rampUp.isNegative() || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("rampUp must not be negative and duration must be positive");
+        }
+        this.concurrency = concurrency;
+        this.rampUp = rampUp;
+        this.duration = duration;
+    }
+
+    /** Adds {@code operation} to the mix, picked with probability {@code weight / total weight}; 0 disables it. */
+    public LoadGenerator add(String name, int weight, Operation operation) {
+        if (weight < 0) throw new IllegalArgumentException("weight must not be negative");
+        names.add(name);
+        operations.add(operation);
+        int[] weights = new int[cumulativeWeights.length + 1];
+        System.arraycopy(cumulativeWeights, 0, weights, 0, cumulativeWeights.length);
+        weights[weights.length - 1] = (weights.length == 1 ? 0 : weights[weights.length - 2]) + weight;
+        cumulativeWeights = weights;
+        return this;
+    }
+
+    public Report run() {
+        if (operations.isEmpty() || cumulativeWeights[cumulativeWeights.length - 1] == 0) {
+            throw new IllegalStateException("No operations with a positive weight");
+        }
+        long start = System.nanoTime();
+        long measureFrom = start + rampUp.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "load-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<Histogram[]>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                long startAt = start + rampUp.toNanos() * i / concurrency;
+                long seed = 31L * i + start;
+                workers.add(executor.submit(() -> work(startAt, measureFrom, end, seed)));
+            }
+            Histogram[] merged = new Histogram[operations.size()];
+            for (int op = 0; op < merged.length; op++) merged[op] = new Histogram();
+            for (Future<Histogram[]> worker : workers) {
+                Histogram[] recorded = worker.get();
+                for (int op = 0; op < merged.length; op++) merged[op].add(recorded[op]);
+            }
+            Map<String, Histogram> byName = new LinkedHashMap<>();
+            for (int op = 0; op < merged.length; op++) byName.put(names.get(op), merged[op]);
+            return new Report(concurrency, duration, byName);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating load", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Histogram[] work(long startAt, long measureFrom, long end, long seed) throws InterruptedException {
+        Histogram[] histograms = new Histogram[operations.size()];
+        for (int op = 0; op < histograms.length; op++) histograms[op] = new Histogram();
+        long wait = startAt - System.nanoTime();
+        if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+        Random random = new Random(seed);
+        SplittableRandom picker = new SplittableRandom(seed);
+        int totalWeight = cumulativeWeights[cumulativeWeights.length - 1];
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            int op = pick(picker.nextInt(totalWeight));
+            Outcome outcome;
+            boolean error = false;
+            try {
+                outcome = operations.get(op).call(random);
+            } catch (Exception e) {
+                outcome = Outcome.FAILED;
+                error = true;
+            }
+            long finished = System.nanoTime();
+            if (now >= measureFrom) histograms[op].record(finished - now, outcome, error);
+            if (Thread.currentThread().isInterrupted()) break;
+        }
+        return histograms;
+    }
+
+    private int pick(int ticket) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) return i;
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    /**
+     * Log-linear latency histogram in nanoseconds: 16 buckets per power of two, so
+     * percentiles are within about 6% of the true value. Not thread-safe; each worker
+     * has its own.
+     */
+    public static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private final long[] counts = new long[BUCKETS];
+        private long count;
+        private long succeeded;
+        private long shed;
+        private long errors;
+        private long totalNanos;
+        private long maxNanos;
+
+        public void record(long nanos, Outcome outcome, boolean error) {
+            long value = Math.max(0, nanos);
+            counts[bucket(value)]++;
+            count++;
+            if (outcome == Outcome.OK) succeeded++;
+            if (outcome == Outcome.SHED) shed++;
+            if (error) errors++;
+            totalNanos += value;
+            maxNanos = Math.max(maxNanos, value);
+        }
+
+        void add(Histogram other) {
+            for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+            count += other.count;
+            succeeded += other.succeeded;
+            shed += other.shed;
+            errors += other.errors;
+            totalNanos += other.totalNanos;
+            maxNanos = Math.max(maxNanos, other.maxNanos);
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long succeeded() {
+            return succeeded;
+        }
+
+        /** Calls that returned {@link Outcome#SHED}. */
+        public long shed() {
+            return shed;
+        }
+
+        /** Calls that threw instead of returning. */
+        public long errors() {
+            return errors;
+        }
+
+        public long maxNanos() {
+            return maxNanos;
+        }
+
+        public double meanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /** The upper bound of the bucket holding the {@code quantile} (0..1) latency, 0 if empty. */
+        public long percentileNanos(double quantile) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(upperBound(i), maxNanos);
+            }
+            return maxNanos;
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) return (int) value;
+            int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            int sub = (int) (value >>> exponent) - SUB_BUCKETS;
+            return (exponent + 1) * SUB_BUCKETS + sub;
+        }
+
+        static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) return bucket;
+            int exponent = bucket / SUB_BUCKETS - 1;
+            long next = bucket % SUB_BUCKETS + SUB_BUCKETS + 1;
+            // bucket cao nhất chạm tới Long.MAX_VALUE; dịch trái thêm nữa sẽ tràn
+            if (exponent >= Long.numberOfLeadingZeros(next)) return Long.MAX_VALUE;
+            return (next << exponent) - 1;
+        }
+    }
+
+    /** Throughput and latency per operation, over the measured window only. */
+    public static final class Report {
+        private final int concurrency;
+        private final Duration window;
+        private final Map<String, Histogram> operations;
+        private final Histogram total = new Histogram();
+
+        Report(int concurrency, Duration window, Map<String, Histogram> operations) {
+            this.concurrency = concurrency;
+            this.window = window;
+            this.operations = operations;
+            operations.values().forEach(total::add);
+        }
+
+        public Map<String, Histogram> operations() {
+            return operations;
+        }
+
+        public Histogram total() {
+            return total;
+        }
+
+        public double throughput() {
+            return total.count() / (window.toNanos() / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder(String.format(
+                    "%d workers, %.1f s measured, %.0f ops/s%n",
+                    concurrency, window.toNanos() / 1e9, throughput()));
+            out.append(String.format("%-20s %10s %10s %8s %8s %8s %10s %10s %10s %10s%n",
+                    "operation", "calls", "ops/s", "ok%", "shed%", "errors", "p50 us", "p99 us", "p999 us", "max us"));
+            operations.forEach((name, h) -> out.append(line(name, h)));
+            out.append(line("total", total));
+            return out.toString();
+        }
+
+        private String line(String name, Histogram h) {
+            double seconds = window.toNanos() / 1e9;
+            return String.format("%-20s %10d %10.0f %8.1f %8.1f %8d %10.1f %10.1f %10.1f %10.1f%n",
+                    name, h.count(), h.count() / seconds, percent(h.succeeded(), h.count()),
+                    percent(h.shed(), h.count()), h.errors(),
+                    h.percentileNanos(0.50) / 1e3, h.percentileNanos(0.99) / 1e3,
+                    h.percentileNanos(0.999) / 1e3, h.maxNanos() / 1e3);
+        }
+
+        private static double percent(long part, long whole) {
+            return whole == 0 ? 0 : 100.0 * part / whole;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+
+import loipt.example.LoadGenerator;
+import loipt.example.LoadGenerator.Outcome;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGeneratorTest {
+
+    @Test
+    void testHistogramPercentiles() {
+        LoadGenerator.Histogram histogram = new LoadGenerator.Histogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000, micros % 10 == 0 ? Outcome.SHED : Outcome.OK, false);
+        }
+        assertEquals(1000, histogram.count());
+        assertEquals(900, histogram.succeeded());
+        assertEquals(100, histogram.shed());
+        assertWithin(500_000, histogram.percentileNanos(0.50));
+        assertWithin(990_000, histogram.percentileNanos(0.99));
+        assertWithin(999_000, histogram.percentileNanos(0.999));
+        assertEquals(1_000_000, histogram.maxNanos());
+    }
+
+    @Test
+    void testRunFollowsMix() {
+        AtomicLong reads = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        LoadGenerator.Report report = new LoadGenerator(4, Duration.ZERO, Duration.ofMillis(300))
+                .add("read", 3, random -> Outcome.of(reads.incrementAndGet() > 0))
+                .add("write", 1, random -> {
+                    writes.incrementAndGet();
+                    throw new IllegalStateException("write failed");
+                })
+                .add("disabled", 0, random -> Outcome.FAILED)
+                .run();
+
+        LoadGenerator.Histogram read = report.operations().get("read");
+        LoadGenerator.Histogram write = report.operations().get("write");
+        assertTrue(read.count() > 0 && write.count() > 0);
+        assertEquals(0, report.operations().get("disabled").count());
+        assertEquals(read.count(), read.succeeded());
+        assertEquals(write.count(), write.errors());
+        double share = (double) read.count() / report.total().count();
+        assertTrue(share > 0.7 && share < 0.8, "read share was " + share);
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        // bucket rộng tối đa 1/16 giá trị
+        assertTrue(Math.abs(actual - expected) <= expected / 16, "expected ~" + expected + " but was " + actual);
+    }
+}
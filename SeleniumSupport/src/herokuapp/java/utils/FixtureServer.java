@@ -0,0 +1,202 @@
+package utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process HTTP server with recorded copies of the pages the suite tests, so a run does
+ * not depend on the-internet.herokuapp.com or demoqa.com being reachable and fast.
+ *
+ * <p>It serves the herokuapp login flow ({@code /login}, {@code /authenticate},
+ * {@code /secure}, {@code /logout}) with the same credentials and flash messages, and the
+ * demoqa {@code /automation-practice-form}, which validates in the browser and shows the
+ * "Thanks for submitting the form" modal. Page objects pick their base URL through
+ * {@link #resolveBaseUrl}.
+ */
+public class FixtureServer {
+
+    private static final String VALID_USERNAME = "tomsmith";
+    private static final String VALID_PASSWORD = "SuperSecretPassword!";
+    private static final Map<String, String> FLASHES = Map.of(
+            "login-ok", flash("success", "You logged into a secure area!"),
+            "logout", flash("success", "You logged out of the secure area!"),
+            "bad-username", flash("error", "Your username is invalid!"),
+            "bad-password", flash("error", "Your password is invalid!"),
+            "not-logged-in", flash("error", "You must login to view the secure area!"));
+
+    private static FixtureServer shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, String> pages = new HashMap<>();
+
+    private FixtureServer() throws IOException {
+        for (String page : List.of("login", "secure", "practice-form")) {
+            pages.put(page, load("/fixtures/" + page + ".html"));
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "fixture-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * The base URL page objects should use instead of {@code liveBaseUrl}, from the
+     * {@code base.url} system property: unset keeps the live site, {@code fixture} starts
+     * the embedded server, anything else is used as is.
+     */
+    public static String resolveBaseUrl(String liveBaseUrl) {
+        String configured = System.getProperty("base.url", "").trim();
+        if (configured.isEmpty()) return liveBaseUrl;
+        if (configured.equals("fixture")) return shared().baseUrl();
+        return configured.endsWith("/") ? configured.substring(0, configured.length() - 1) : configured;
+    }
+
+    /** The server shared by the whole run, started on first use and stopped when the JVM exits. */
+    public static synchronized FixtureServer shared() {
+        if (shared == null) {
+            try {
+                shared = new FixtureServer();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start the fixture server", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::stop, "fixture-server-shutdown"));
+        }
+        return shared;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            switch (path) {
+                case "/login":
+                    sendPage(exchange, "login", takeFlash(exchange));
+                    break;
+                case "/authenticate":
+                    if (!method.equals("POST")) {
+                        redirect(exchange, "/login", null);
+                        break;
+                    }
+                    Map<String, String> form = readForm(exchange);
+                    if (!VALID_USERNAME.equals(form.get("username"))) {
+                        redirect(exchange, "/login", "bad-username");
+                    } else if (!VALID_PASSWORD.equals(form.get("password"))) {
+                        redirect(exchange, "/login", "bad-password");
+                    } else {
+                        exchange.getResponseHeaders().add("Set-Cookie", "session=secure; Path=/");
+                        redirect(exchange, "/secure", "login-ok");
+                    }
+                    break;
+                case "/secure":
+                    if (!cookies(exchange).containsKey("session")) {
+                        redirect(exchange, "/login", "not-logged-in");
+                    } else {
+                        sendPage(exchange, "secure", takeFlash(exchange));
+                    }
+                    break;
+                case "/logout":
+                    exchange.getResponseHeaders().add("Set-Cookie", "session=; Path=/; Max-Age=0");
+                    redirect(exchange, "/login", "logout");
+                    break;
+                case "/automation-practice-form":
+                    sendPage(exchange, "practice-form", "");
+                    break;
+                default:
+                    send(exchange, 404, "text/plain", "Not Found");
+            }
+        }
+    }
+
+    private void sendPage(HttpExchange exchange, String page, String flash) throws IOException {
+        send(exchange, 200, "text/html; charset=utf-8", pages.get(page).replace("{{flash}}", flash));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /** Redirects like the live sites do, carrying the flash message in a cookie. */
+    private static void redirect(HttpExchange exchange, String location, String flash) throws IOException {
+        if (flash != null) exchange.getResponseHeaders().add("Set-Cookie", "flash=" + flash + "; Path=/");
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(303, -1);
+    }
+
+    private static String takeFlash(HttpExchange exchange) {
+        String code = cookies(exchange).get("flash");
+        if (code == null) return "";
+        exchange.getResponseHeaders().add("Set-Cookie", "flash=; Path=/; Max-Age=0");
+        return FLASHES.getOrDefault(code, "");
+    }
+
+    private static Map<String, String> cookies(HttpExchange exchange) {
+        Map<String, String> cookies = new HashMap<>();
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String pair : header.split(";")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) cookies.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+            }
+        }
+        return cookies;
+    }
+
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            form.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return form;
+    }
+
+    private static String flash(String type, String message) {
+        return "<div data-alert id=\"flash\" class=\"flash " + type + "\">\n            " + message
+                + "\n            <a class=\"close\" href=\"#\">×</a>\n          </div>";
+    }
+
+    private static String load(String resource) throws IOException {
+        try (InputStream in = FixtureServer.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IOException("Missing fixture " + resource);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
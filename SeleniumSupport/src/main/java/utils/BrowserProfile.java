@@ -0,0 +1,94 @@
+package utils;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * How a suite's {@code DriverFactory} launches Chrome, chosen per run with {@code -Dbrowser.profile}.
+ *
+ * <ul>
+ *   <li>{@code full} (default): a headed window that loads everything. It keeps Chrome's
+ *       default size unless {@code browser.maximize} is {@code true}, since Exercise5 always
+ *       ran at the default size and Exercise6 always maximized; each pom sets its own.</li>
+ *   <li>{@code headless}: headless with a fixed 1366x900 viewport, images and web fonts
+ *       blocked, and commands returning once the DOM is ready ({@link PageLoadStrategy#EAGER}).</li>
+ *   <li>{@code headless-none}: as {@code headless} but {@code get()} returns immediately
+ *       ({@link PageLoadStrategy#NONE}); pages must wait for what they use.</li>
+ * </ul>
+ *
+ * Startup and page-load times are recorded in {@link StepMetrics} under {@code profile:<name>}.
+ */
+public enum BrowserProfile {
+    FULL(false, PageLoadStrategy.NORMAL),
+    HEADLESS(true, PageLoadStrategy.EAGER),
+    HEADLESS_NONE(true, PageLoadStrategy.NONE);
+
+    private static final Dimension VIEWPORT = new Dimension(1366, 900);
+    // Chrome có pref chặn ảnh nhưng không có pref chặn font, nên chặn qua CDP
+    private static final List<String> BLOCKED_URLS = List.of(
+            "*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot",
+            "*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.svg", "*.ico");
+
+    private final boolean headless;
+    private final PageLoadStrategy pageLoadStrategy;
+
+    BrowserProfile(boolean headless, PageLoadStrategy pageLoadStrategy) {
+        this.headless = headless;
+        this.pageLoadStrategy = pageLoadStrategy;
+    }
+
+    /** The profile named by {@code browser.profile}, e.g. {@code headless-none}. */
+    public static BrowserProfile current() {
+        String name = System.getProperty("browser.profile", "full").trim();
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown browser.profile '" + name + "', expected one of "
+                    + List.of("full", "headless", "headless-none"), e);
+        }
+    }
+
+    public String displayName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /** Adds this profile's switches to {@code options}. */
+    public ChromeOptions configure(ChromeOptions options) {
+        options.setPageLoadStrategy(pageLoadStrategy);
+        if (headless) {
+            options.addArguments("--headless=new");
+            options.addArguments("--window-size=" + VIEWPORT.getWidth() + "," + VIEWPORT.getHeight());
+            options.addArguments("--blink-settings=imagesEnabled=false");
+            options.setExperimentalOption("prefs", Map.of("profile.managed_default_content_settings.images", 2));
+        }
+        return options;
+    }
+
+    /** Finishes setting up a freshly started browser. */
+    public void afterStart(WebDriver driver) {
+        if (!headless) {
+            if (Boolean.getBoolean("browser.maximize")) driver.manage().window().maximize();
+            return;
+        }
+        if (driver instanceof HasCdp) {
+            HasCdp cdp = (HasCdp) driver;
+            cdp.executeCdpCommand("Network.enable", Map.of());
+            cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", BLOCKED_URLS));
+        }
+    }
+
+    public void recordStartup(long nanos) {
+        StepMetrics.record("profile:" + displayName(), "startup", "", nanos, false);
+    }
+
+    public void recordPageLoad(String url, long nanos, boolean timedOut) {
+        StepMetrics.record("profile:" + displayName(), "pageLoad", url, nanos, timedOut);
+    }
+}
@@ -0,0 +1,72 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Page actions done in one {@code executeScript} call instead of a round-trip per element,
+ * shared by the page objects of every suite.
+ */
+public final class BrowserScripts {
+    // đặt value qua setter gốc của prototype để React/Vue nhận được thay đổi, rồi phát input/change
+    private static final String FILL_SCRIPT =
+            "var fields = arguments[0], missing = [];"
+            + "for (var i = 0; i < fields.length; i++) {"
+            + "  var f = fields[i], el = f[0] === 'xpath'"
+            + "    ? document.evaluate(f[1], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue"
+            + "    : document.querySelector(f[1]);"
+            + "  if (!el || !('value' in el)) { missing.push(i); continue; }"
+            + "  var setter = Object.getOwnPropertyDescriptor(Object.getPrototypeOf(el), 'value');"
+            + "  if (setter && setter.set) setter.set.call(el, f[2]); else el.value = f[2];"
+            + "  el.dispatchEvent(new Event('input', {bubbles: true}));"
+            + "  el.dispatchEvent(new Event('change', {bubbles: true}));"
+            + "}"
+            + "return missing;";
+
+    private BrowserScripts() {
+    }
+
+    /**
+     * Sets the value of every field in {@code values} with a single script call, firing the
+     * input and change events a user would.
+     *
+     * @return the fields the caller still has to type key by key, in order: those in
+     *         {@code typedFields}, those whose locator has no CSS or XPath form, and those
+     *         the script could not find
+     */
+    public static List<By> fill(JavascriptExecutor js, Map<By, String> values, Set<By> typedFields) {
+        List<By> scripted = new ArrayList<>();
+        List<List<String>> fields = new ArrayList<>();
+        List<By> typed = new ArrayList<>();
+        for (Map.Entry<By, String> entry : values.entrySet()) {
+            By locator = entry.getKey();
+            String[] query = remoteQuery(locator);
+            if (typedFields.contains(locator) || query == null) {
+                typed.add(locator);
+            } else {
+                scripted.add(locator);
+                fields.add(List.of(query[0], query[1], entry.getValue()));
+            }
+        }
+        if (!fields.isEmpty()) {
+            Object missing = js.executeScript(FILL_SCRIPT, fields);
+            for (Object index : (List<?>) missing) {
+                typed.add(scripted.get(((Number) index).intValue()));
+            }
+        }
+        return typed;
+    }
+
+    /** {@code css selector} or {@code xpath} and the query for {@code locator}, as WebDriver sends them; {@code null} otherwise. */
+    public static String[] remoteQuery(By locator) {
+        if (!(locator instanceof By.Remotable)) return null;
+        By.Remotable.Parameters query = ((By.Remotable) locator).getRemoteParameters();
+        if (!"css selector".equals(query.using()) && !"xpath".equals(query.using())) return null;
+        return new String[] {query.using(), String.valueOf(query.value())};
+    }
+}
@@ -0,0 +1,345 @@
+package utils;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Runs the rows of a CSV resource in parallel, one browser session per shard.
+ *
+ * <p>The rows are cut into at most {@code shards} contiguous blocks, never more than there
+ * are rows. The caller's own driver starts on them at once. Each other shard gets a worker
+ * thread that asks {@code extraSessions} for a session of its own, so extra browsers start
+ * in parallel and only while shards are still waiting. {@code extraSessions} returns
+ * {@code null} when none is free: waiting for a browser held by another test class could
+ * deadlock, so shards nobody picks up run on the sessions that are already working.
+ * A failing row is recorded and the shard moves on.
+ *
+ * <p>{@link #dynamicTests} starts the shards in the background and returns one
+ * {@link DynamicTest} per row, in row order. Each test waits for its own row and fails with
+ * that row's failure, so JUnit reports every row as soon as it is done rather than after the
+ * whole file. Since rows run concurrently, the time JUnit shows for a test is how long it
+ * waited for its row; each row's own duration is in the {@link Report}, written to
+ * {@code <csv.report.dir>/<name>.csv} (default {@code target/csv-shards}) once every row
+ * has finished.
+ *
+ * <p>CSV values are read like {@code @CsvFileSource}: the first line is the header,
+ * unquoted values are trimmed and empty ones become {@code null}, and {@code ""} is an
+ * empty string.
+ */
+public class CsvShardRunner {
+
+    /** The check for one row, run on the session of the shard it belongs to. */
+    @FunctionalInterface
+    public interface RowCheck {
+        void run(WebDriver driver, Row row) throws Throwable;
+    }
+
+    private final String name;
+    private final int shards;
+    private final Supplier<WebDriver> extraSessions;
+    private final Consumer<WebDriver> releaseSession;
+
+    public CsvShardRunner(String name, int shards, Supplier<WebDriver> extraSessions, Consumer<WebDriver> releaseSession) {
+        if (shards < 1) throw new IllegalArgumentException("shards must be at least 1");
+        this.name = name;
+        this.shards = shards;
+        this.extraSessions = extraSessions;
+        this.releaseSession = releaseSession;
+    }
+
+    /**
+     * Starts running {@code check} on every data row of {@code resource}, using {@code driver}
+     * as one of the sessions, and returns the row tests named by {@code displayName}.
+     */
+    public Stream<DynamicTest> dynamicTests(String resource, WebDriver driver, RowCheck check,
+                                            Function<Row, String> displayName) {
+        List<Row> rows = readCsv(resource);
+        List<CompletableFuture<RowResult>> results = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) results.add(new CompletableFuture<>());
+        start(rows, driver, check, results);
+        return IntStream.range(0, rows.size()).mapToObj(i -> DynamicTest.dynamicTest(displayName.apply(rows.get(i)), () -> {
+            RowResult result = results.get(i).get();
+            if (!result.passed()) throw result.failure();
+        }));
+    }
+
+    private void start(List<Row> rows, WebDriver driver, RowCheck check, List<CompletableFuture<RowResult>> results) {
+        long start = System.nanoTime();
+        int shardCount = Math.min(shards, Math.max(1, rows.size()));
+        int shardSize = Math.max(1, (rows.size() + shardCount - 1) / shardCount);
+        ConcurrentLinkedQueue<int[]> pending = new ConcurrentLinkedQueue<>();
+        for (int shard = 0, from = 0; from < rows.size(); shard++, from += shardSize) {
+            pending.add(new int[]{shard, from, Math.min(from + shardSize, rows.size())});
+        }
+
+        AtomicInteger sessions = new AtomicInteger(1);
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            List<RowResult> merged = new ArrayList<>();
+            for (CompletableFuture<RowResult> result : results) merged.add(result.join());
+            Report report = new Report(name, merged, shardCount, sessions.get(), System.nanoTime() - start);
+            report.write();
+            System.out.println(report.summary());
+        });
+
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, pending.size()), r -> {
+            Thread thread = new Thread(r, "csv-shard-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        workers.execute(() -> work(driver, pending, rows, results, check));
+        for (int i = 1; i < pending.size(); i++) {
+            workers.execute(() -> {
+                // shard của phiên chính có thể đã xong trước khi browser mới kịp khởi động
+                if (pending.isEmpty()) return;
+                WebDriver extra;
+                try {
+                    extra = extraSessions.get();
+                } catch (RuntimeException e) {
+                    // các shard còn lại vẫn chạy trên những phiên đang có
+                    System.err.println("[CsvShardRunner] Could not start an extra session for " + name + ": " + e.getMessage());
+                    return;
+                }
+                if (extra == null) return;
+                sessions.incrementAndGet();
+                try {
+                    work(extra, pending, rows, results, check);
+                } finally {
+                    releaseSession.accept(extra);
+                }
+            });
+        }
+        // các worker vẫn chạy hết việc đã nhận rồi mới dừng
+        workers.shutdown();
+    }
+
+    private static void work(WebDriver driver, ConcurrentLinkedQueue<int[]> pending, List<Row> rows,
+                             List<CompletableFuture<RowResult>> results, RowCheck check) {
+        int[] shard;
+        while ((shard = pending.poll()) != null) {
+            for (int i = shard[1]; i < shard[2]; i++) {
+                Row row = rows.get(i);
+                long start = System.nanoTime();
+                Throwable failure = null;
+                try {
+                    check.run(driver, row);
+                } catch (Throwable t) {
+                    failure = t;
+                }
+                results.get(i).complete(new RowResult(row, shard[0], System.nanoTime() - start, failure));
+            }
+        }
+    }
+
+    static List<Row> readCsv(String resource) {
+        String text;
+        try (InputStream in = CsvShardRunner.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalArgumentException("CSV resource not found: " + resource);
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + resource, e);
+        }
+        List<Row> rows = new ArrayList<>();
+        String[] lines = text.split("\r?\n");
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].isBlank()) continue;
+            rows.add(new Row(rows.size() + 1, i + 1, parseLine(lines[i])));
+        }
+        return rows;
+    }
+
+    private static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"' && value.toString().isBlank()) {
+                quoted = true;
+                wasQuoted = true;
+                value.setLength(0);
+            } else if (c == ',') {
+                values.add(finish(value, wasQuoted));
+                value.setLength(0);
+                wasQuoted = false;
+            } else if (!wasQuoted) {
+                value.append(c);
+            }
+        }
+        values.add(finish(value, wasQuoted));
+        return values;
+    }
+
+    private static String finish(StringBuilder value, boolean wasQuoted) {
+        if (wasQuoted) return value.toString();
+        String trimmed = value.toString().trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /** One data row; {@code index} counts from 1 after the header, {@code line} is the line in the file. */
+    public static final class Row {
+        private final int index;
+        private final int line;
+        private final List<String> values;
+
+        Row(int index, int line, List<String> values) {
+            this.index = index;
+            this.line = line;
+            this.values = Collections.unmodifiableList(values);
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public int line() {
+            return line;
+        }
+
+        /** The value in {@code column}, or {@code null} if it is empty or missing. */
+        public String get(int column) {
+            return column < values.size() ? values.get(column) : null;
+        }
+
+        /** Like {@link #get} but {@code null} and {@code "null"} become an empty string. */
+        public String text(int column) {
+            String value = get(column);
+            return value == null || value.equals("null") ? "" : value.trim();
+        }
+
+        public List<String> values() {
+            return values;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + index + " " + values;
+        }
+    }
+
+    public static final class RowResult {
+        private final Row row;
+        private final int shard;
+        private final long nanos;
+        private final Throwable failure;
+
+        RowResult(Row row, int shard, long nanos, Throwable failure) {
+            this.row = row;
+            this.shard = shard;
+            this.nanos = nanos;
+            this.failure = failure;
+        }
+
+        public Row row() {
+            return row;
+        }
+
+        public int shard() {
+            return shard;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+
+        public boolean passed() {
+            return failure == null;
+        }
+
+        public Throwable failure() {
+            return failure;
+        }
+    }
+
+    /** The results of one run, in row order. */
+    public static final class Report {
+        private final String name;
+        private final List<RowResult> results;
+        private final int shards;
+        private final int sessions;
+        private final long wallNanos;
+
+        Report(String name, List<RowResult> results, int shards, int sessions, long wallNanos) {
+            this.name = name;
+            this.results = results;
+            this.shards = shards;
+            this.sessions = sessions;
+            this.wallNanos = wallNanos;
+        }
+
+        public List<RowResult> results() {
+            return results;
+        }
+
+        public long failures() {
+            return results.stream().filter(r -> !r.passed()).count();
+        }
+
+        public String summary() {
+            long busy = results.stream().mapToLong(RowResult::nanos).sum();
+            return String.format("[CsvShardRunner] %s: %d rows, %d failed, %d shards on %d sessions,"
+                            + " wall %d ms, row time %d ms",
+                    name, results.size(), failures(), shards, sessions,
+                    TimeUnit.NANOSECONDS.toMillis(wallNanos), TimeUnit.NANOSECONDS.toMillis(busy));
+        }
+
+        void write() {
+            Path file = Paths.get(System.getProperty("csv.report.dir", "target/csv-shards"), name + ".csv");
+            List<String> lines = new ArrayList<>();
+            lines.add("row,line,shard,status,millis,values,error");
+            for (RowResult result : results) {
+                Throwable failure = result.failure();
+                lines.add(String.join(",",
+                        String.valueOf(result.row().index()),
+                        String.valueOf(result.row().line()),
+                        String.valueOf(result.shard()),
+                        result.passed() ? "passed" : "failed",
+                        String.valueOf(TimeUnit.NANOSECONDS.toMillis(result.nanos())),
+                        quote(String.valueOf(result.row().values())),
+                        quote(failure == null ? "" : failure.getClass().getSimpleName() + ": " + failure.getMessage())));
+            }
+            try {
+                Files.createDirectories(file.getParent());
+                Files.write(file, lines, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.err.println("[CsvShardRunner] Could not write " + file + ": " + e.getMessage());
+            }
+        }
+
+        private static String quote(String value) {
+            String oneLine = value.replace('\n', ' ').replace('\r', ' ');
+            return "\"" + oneLine.replace("\"", "\"\"") + "\"";
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Finds the chromedriver binary once per JVM, without touching the network when it can.
+ *
+ * <p>Binaries are cached under {@code driver.cache.dir} (default
+ * {@code ~/.cache/selenium-drivers}) as {@code chromedriver/<major>/chromedriver}, keyed by
+ * the major version of the installed Chrome. The version is read from
+ * {@code -Dchrome.version} or by running Chrome with {@code --version}. Resolution order:
+ * an explicit {@code webdriver.chrome.driver}; the cached binary for that version;
+ * WebDriverManager's own cache; and finally WebDriverManager online, whose download is
+ * copied into the cache. With {@code -Ddriver.offline=true} the online step is skipped
+ * and resolution fails fast instead of hanging.
+ */
+public final class DriverBinaries {
+
+    private static final String DRIVER_PROPERTY = "webdriver.chrome.driver";
+    private static final Pattern VERSION = Pattern.compile("(\\d+)(\\.\\d+)+");
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("win");
+    private static final String BINARY_NAME = WINDOWS ? "chromedriver.exe" : "chromedriver";
+
+    private static volatile Path chromeDriver;
+
+    private DriverBinaries() {
+    }
+
+    /** The chromedriver to use, also set as {@code webdriver.chrome.driver}. Resolved on the first successful call only. */
+    public static Path chromeDriver() {
+        Path resolved = chromeDriver;
+        if (resolved == null) {
+            synchronized (DriverBinaries.class) {
+                resolved = chromeDriver;
+                if (resolved == null) chromeDriver = resolved = resolveChromeDriver();
+            }
+        }
+        return resolved;
+    }
+
+    private static Path resolveChromeDriver() {
+        long start = System.nanoTime();
+        Path driver = findChromeDriver();
+        System.setProperty(DRIVER_PROPERTY, driver.toString());
+        System.out.printf("[DriverBinaries] Using %s (resolved in %d ms)%n",
+                driver, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return driver;
+    }
+
+    private static Path findChromeDriver() {
+        String configured = System.getProperty(DRIVER_PROPERTY);
+        if (configured != null && Files.isExecutable(Paths.get(configured))) {
+            return Paths.get(configured);
+        }
+        Path cacheDir = Paths.get(System.getProperty("driver.cache.dir",
+                Paths.get(System.getProperty("user.home"), ".cache", "selenium-drivers").toString()), "chromedriver");
+        Optional<String> major = chromeMajorVersion();
+
+        Optional<Path> cached = major.isPresent()
+                ? executable(cacheDir.resolve(major.get()).resolve(BINARY_NAME))
+                : newestIn(cacheDir, "");
+        if (cached.isPresent()) return cached.get();
+
+        // WebDriverManager lưu driver đã tải trong ~/.cache/selenium/chromedriver/<platform>/<version>/
+        Path wdmCache = Paths.get(System.getProperty("user.home"), ".cache", "selenium", "chromedriver");
+        Optional<Path> fromWdm = newestIn(wdmCache, major.map(m -> m + ".").orElse(""));
+        if (fromWdm.isPresent()) return store(fromWdm.get(), cacheDir, major.orElseGet(() -> majorOf(fromWdm.get())));
+
+        if (Boolean.getBoolean("driver.offline")) {
+            throw new IllegalStateException("No cached chromedriver for Chrome " + major.orElse("(unknown version)")
+                    + " in " + cacheDir + "; put one there or set -D" + DRIVER_PROPERTY);
+        }
+        WebDriverManager manager = WebDriverManager.chromedriver();
+        major.ifPresent(manager::browserVersion);
+        manager.setup();
+        Path downloaded = Paths.get(manager.getDownloadedDriverPath());
+        String version = manager.getDownloadedDriverVersion();
+        // không có version từ WDM thì lấy từ thư mục chứa driver (.../<version>/chromedriver)
+        return store(downloaded, cacheDir, major.orElseGet(() -> version != null ? majorOf(version) : majorOf(downloaded)));
+    }
+
+    /** The installed Chrome's major version, from {@code chrome.version} or {@code chrome --version}. */
+    static Optional<String> chromeMajorVersion() {
+        String configured = System.getProperty("chrome.version");
+        if (configured != null && !configured.isBlank()) return Optional.of(majorOf(configured.trim()));
+        for (List<String> command : versionCommands()) {
+            try {
+                Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                    continue;
+                }
+                String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                Matcher matcher = VERSION.matcher(output);
+                if (process.exitValue() == 0 && matcher.find()) return Optional.of(matcher.group(1));
+            } catch (IOException e) {
+                // Chrome không nằm ở đường dẫn này, thử lệnh tiếp theo
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<List<String>> versionCommands() {
+        List<List<String>> commands = new ArrayList<>();
+        if (WINDOWS) {
+            commands.add(List.of("reg", "query", "HKEY_CURRENT_USER\\Software\\Google\\Chrome\\BLBeacon", "/v", "version"));
+            commands.add(List.of("reg", "query", "HKEY_LOCAL_MACHINE\\SOFTWARE\\Google\\Chrome\\BLBeacon", "/v", "version"));
+        } else {
+            commands.add(List.of("/Applications/Google Chrome.app/Contents/MacOS/Google Chrome", "--version"));
+            for (String binary : List.of("google-chrome", "google-chrome-stable", "chromium", "chromium-browser")) {
+                commands.add(List.of(binary, "--version"));
+            }
+        }
+        return commands;
+    }
+
+    /** The most recent chromedriver below {@code dir} whose version directory starts with {@code prefix}. */
+    private static Optional<Path> newestIn(Path dir, String prefix) {
+        if (!Files.isDirectory(dir)) return Optional.empty();
+        try (Stream<Path> files = Files.walk(dir, 4)) {
+            return files.filter(p -> p.getFileName().toString().equals(BINARY_NAME))
+                    .filter(Files::isExecutable)
+                    .filter(p -> p.getParent().getFileName().toString().startsWith(prefix))
+                    .max(Comparator.comparing(p -> versionKey(p.getParent().getFileName().toString())));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Path store(Path binary, Path cacheDir, String major) {
+        Path target = cacheDir.resolve(major).resolve(BINARY_NAME);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), BINARY_NAME, ".tmp");
+            try {
+                Files.copy(binary, temp, StandardCopyOption.REPLACE_EXISTING);
+                temp.toFile().setExecutable(true);
+                // đổi tên nguyên tử để JVM khác đang đọc cache không thấy file ghi dở
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not cache chromedriver in " + target.getParent(), e);
+        }
+    }
+
+    private static Optional<Path> executable(Path path) {
+        return Files.isExecutable(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    private static String majorOf(Path binary) {
+        return majorOf(binary.getParent().getFileName().toString());
+    }
+
+    private static String majorOf(String version) {
+        int dot = version.indexOf('.');
+        return dot < 0 ? version : version.substring(0, dot);
+    }
+
+    /** Sorts numeric version strings such as {@code 126.0.6478.126} numerically, padded per part. */
+    private static String versionKey(String version) {
+        StringBuilder key = new StringBuilder();
+        for (String part : version.split("\\.")) {
+            key.append(String.format("%10s", part.replaceAll("\\D", ""))).append('.');
+        }
+        return key.toString();
+    }
+}
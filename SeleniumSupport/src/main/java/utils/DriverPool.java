@@ -0,0 +1,285 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URI;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of browsers shared by tests running in parallel.
+ *
+ * <p>{@link #acquire()} hands out an idle browser after a health check, starts a new one
+ * while fewer than {@code maxSize} exist, and otherwise waits for one to be released.
+ * {@link #release} wipes what the last test left behind and returns the browser to the
+ * pool, or quits it once it has served {@code maxUses} leases and starts a replacement in
+ * the background. On Chromium the wipe goes through DevTools: every cookie in the browser,
+ * and local storage, session storage, IndexedDB and caches of each origin in the tab's
+ * navigation history. Other browsers only get the cookies and storage of the page they
+ * are on when released.
+ * The most recently released browser is handed out first, so a small suite keeps
+ * reusing the same warm window.
+ */
+public class DriverPool {
+
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 300;
+
+    private final Supplier<WebDriver> factory;
+    private final int maxSize;
+    private final int maxUses;
+    private final BlockingDeque<Pooled> idle = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, Pooled> leased = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger warming = new AtomicInteger();
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger recycled = new AtomicInteger();
+    private final ExecutorService starter;
+    private volatile boolean closed;
+
+    public DriverPool(Supplier<WebDriver> factory, int maxSize, int maxUses) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be at least 1");
+        if (maxUses < 1) throw new IllegalArgumentException("maxUses must be at least 1");
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.maxUses = maxUses;
+        this.starter = Executors.newFixedThreadPool(maxSize, r -> {
+            Thread thread = new Thread(r, "driver-pool-starter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Starts up to {@code count} browsers in the background so the first tests don't wait for them. */
+    public void warmUp(int count) {
+        for (int i = 0; i < count && reserve(); i++) {
+            warming.incrementAndGet();
+            starter.execute(() -> {
+                try {
+                    Pooled pooled = start();
+                    // close() may have drained the pool while this browser was starting
+                    if (closed) {
+                        discard(pooled);
+                    } else {
+                        idle.offerLast(pooled);
+                        if (closed && idle.remove(pooled)) discard(pooled);
+                    }
+                } catch (RuntimeException e) {
+                    size.decrementAndGet();
+                    System.err.println("[DriverPool] Warm-up failed: " + e.getMessage());
+                } finally {
+                    warming.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /** Leases a healthy browser, waiting for one to be released if the pool is full. */
+    public WebDriver acquire() {
+        if (closed) throw new IllegalStateException("Driver pool is closed");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(ACQUIRE_TIMEOUT_SECONDS);
+        while (true) {
+            Pooled pooled = idle.pollFirst();
+            // a browser that is already warming up is usually ready sooner than a new one
+            if (pooled == null && warming.get() == 0 && reserve()) {
+                try {
+                    pooled = start();
+                } catch (RuntimeException e) {
+                    size.decrementAndGet();
+                    throw e;
+                }
+            }
+            if (pooled == null) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("No driver released within " + ACQUIRE_TIMEOUT_SECONDS + "s: " + this);
+                }
+                try {
+                    pooled = idle.pollFirst(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a driver", e);
+                }
+                if (pooled == null) continue;
+            }
+            if (isHealthy(pooled.driver)) {
+                pooled.uses++;
+                leased.put(pooled.driver, pooled);
+                return pooled.driver;
+            }
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Like {@link #acquire()} but never waits: returns an idle browser, starts one if the
+     * pool has room, and otherwise returns {@code null}.
+     */
+    public WebDriver tryAcquire() {
+        while (!closed) {
+            Pooled pooled = idle.pollFirst();
+            if (pooled == null) {
+                if (!reserve()) return null;
+                try {
+                    pooled = start();
+                } catch (RuntimeException e) {
+                    size.decrementAndGet();
+                    throw e;
+                }
+            }
+            if (isHealthy(pooled.driver)) {
+                pooled.uses++;
+                leased.put(pooled.driver, pooled);
+                return pooled.driver;
+            }
+            discard(pooled);
+        }
+        return null;
+    }
+
+    /** Returns a browser obtained from {@link #acquire()} or {@link #tryAcquire()}. Unknown drivers are ignored. */
+    public void release(WebDriver driver) {
+        Pooled pooled = driver == null ? null : leased.remove(driver);
+        if (pooled == null) return;
+        if (closed) {
+            discard(pooled);
+        } else if (pooled.uses >= maxUses) {
+            recycled.incrementAndGet();
+            discard(pooled);
+            warmUp(1);
+        } else if (reset(pooled.driver)) {
+            idle.offerFirst(pooled);
+        } else {
+            discard(pooled);
+        }
+    }
+
+    /** Quits every browser, including leased ones. */
+    public void close() {
+        closed = true;
+        starter.shutdownNow();
+        Pooled pooled;
+        while ((pooled = idle.pollFirst()) != null) discard(pooled);
+        leased.values().forEach(this::discard);
+        leased.clear();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public String toString() {
+        return "DriverPool[size=" + size.get() + "/" + maxSize + ", idle=" + idle.size()
+                + ", leased=" + leased.size() + ", started=" + started.get()
+                + ", recycled=" + recycled.get() + "]";
+    }
+
+    private boolean reserve() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= maxSize || closed) return false;
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private Pooled start() {
+        WebDriver driver = factory.get();
+        started.incrementAndGet();
+        return new Pooled(driver);
+    }
+
+    private void discard(Pooled pooled) {
+        size.decrementAndGet();
+        try {
+            pooled.driver.quit();
+        } catch (RuntimeException ignored) {
+            // the browser is already gone
+        }
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() == null) {
+                return false;
+            }
+            driver.getWindowHandle();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static boolean reset(WebDriver driver) {
+        try {
+            if (driver instanceof HasCdp) {
+                clearBrowsingData((HasCdp) driver);
+                driver.get("about:blank");
+                ((HasCdp) driver).executeCdpCommand("Page.resetNavigationHistory", Map.of());
+            } else {
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { localStorage.clear(); sessionStorage.clear(); } catch (e) {}");
+                driver.manage().deleteAllCookies();
+                driver.get("about:blank");
+            }
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // deleteAllCookies chỉ xóa cookie của domain hiện tại, nên xóa qua DevTools cho mọi origin đã ghé
+    private static void clearBrowsingData(HasCdp cdp) {
+        cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+        Set<String> origins = visitedOrigins(cdp);
+        if (origins.isEmpty()) return;
+        cdp.executeCdpCommand("DOMStorage.enable", Map.of());
+        for (String origin : origins) {
+            cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+            // session storage thuộc về tab nên clearDataForOrigin không xóa
+            cdp.executeCdpCommand("DOMStorage.clear",
+                    Map.of("storageId", Map.of("securityOrigin", origin, "isLocalStorage", false)));
+        }
+        cdp.executeCdpCommand("DOMStorage.disable", Map.of());
+    }
+
+    private static Set<String> visitedOrigins(HasCdp cdp) {
+        Set<String> origins = new LinkedHashSet<>();
+        Object entries = cdp.executeCdpCommand("Page.getNavigationHistory", Map.of()).get("entries");
+        if (!(entries instanceof List)) return origins;
+        for (Object entry : (List<?>) entries) {
+            Object url = entry instanceof Map ? ((Map<?, ?>) entry).get("url") : null;
+            if (url == null) continue;
+            try {
+                URI uri = URI.create(url.toString());
+                if (("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) && uri.getHost() != null) {
+                    origins.add(uri.getScheme() + "://" + uri.getHost() + (uri.getPort() < 0 ? "" : ":" + uri.getPort()));
+                }
+            } catch (IllegalArgumentException ignored) {
+                // not a URL with an origin
+            }
+        }
+        return origins;
+    }
+
+    private static final class Pooled {
+        final WebDriver driver;
+        int uses;
+
+        Pooled(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package utils;
+
+import org.openqa.selenium.TimeoutException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Latency histograms for page object steps, keyed by page, action and locator.
+ *
+ * <p>Each step keeps a log-linear histogram of microseconds: eight buckets per power of
+ * two, so percentiles are within 12.5% of the true value. Recording only touches atomic
+ * counters, so parallel test classes can share it.
+ *
+ * <p>When the JVM exits, the steps are written to {@code step-metrics.json} and
+ * {@code step-metrics.html} in {@code step.metrics.dir} (default {@code target/step-metrics}),
+ * sorted by total time and listing the {@code step.metrics.top} slowest (default 20).
+ * The time spent in each kind of wait ({@code wait:*} steps) is also printed to the
+ * console, followed by any summaries other reporters added with {@link #addExitSummary},
+ * so the whole run is reported from this one shutdown hook.
+ */
+public final class StepMetrics {
+
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKETS = 256;
+    private static final String WAIT_PREFIX = "wait:";
+    private static final Map<Key, Histogram> STEPS = new ConcurrentHashMap<>();
+    private static final List<Supplier<String>> EXIT_SUMMARIES = new CopyOnWriteArrayList<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (!STEPS.isEmpty()) {
+                Path dir = Paths.get(System.getProperty("step.metrics.dir", "target/step-metrics"));
+                try {
+                    writeReport(dir, Integer.getInteger("step.metrics.top", 20));
+                    System.out.println("[StepMetrics] Report written to " + dir.toAbsolutePath());
+                } catch (UncheckedIOException e) {
+                    System.err.println("[StepMetrics] Could not write report: " + e.getMessage());
+                }
+                String waits = waitSummary();
+                if (waits != null) System.out.println(waits);
+            }
+            for (Supplier<String> summary : EXIT_SUMMARIES) {
+                String text = summary.get();
+                if (text != null) System.out.println(text);
+            }
+        }, "step-metrics"));
+    }
+
+    private StepMetrics() {
+    }
+
+    /**
+     * @param page     page object the step ran on, e.g. {@code RegisterPage}
+     * @param action   e.g. {@code click} or {@code wait:modal}
+     * @param locator  the locator's {@code toString()}, or an empty string
+     * @param timedOut whether the step failed by timing out
+     */
+    public static void record(String page, String action, String locator, long nanos, boolean timedOut) {
+        STEPS.computeIfAbsent(new Key(page, action, locator), k -> new Histogram()).add(nanos, timedOut);
+    }
+
+    /**
+     * Runs {@code body} and records how long it took under {@code page}, {@code action} and
+     * {@code target}. A Selenium {@link TimeoutException} counts as timed out.
+     */
+    public static <T> T time(String page, String action, Object target, Supplier<T> body) {
+        long start = System.nanoTime();
+        boolean timedOut = false;
+        try {
+            return body.get();
+        } catch (TimeoutException e) {
+            timedOut = true;
+            throw e;
+        } finally {
+            record(page, action, target == null ? "" : target.toString(), System.nanoTime() - start, timedOut);
+        }
+    }
+
+    /** Prints {@code summary} when the JVM exits, after the report; a {@code null} result prints nothing. */
+    public static void addExitSummary(Supplier<String> summary) {
+        EXIT_SUMMARIES.add(summary);
+    }
+
+    public static List<Step> steps() {
+        List<Step> steps = new ArrayList<>();
+        STEPS.forEach((key, histogram) -> steps.add(histogram.toStep(key)));
+        steps.sort(Comparator.comparingLong(Step::totalMicros).reversed());
+        return steps;
+    }
+
+    public static void reset() {
+        STEPS.clear();
+    }
+
+    /**
+     * One line per kind of wait over all pages and locators: count, total, mean and max
+     * milliseconds, and how many timed out. {@code null} if no wait was recorded.
+     */
+    public static String waitSummary() {
+        Map<String, long[]> waits = new TreeMap<>();
+        for (Step step : steps()) {
+            if (!step.action().startsWith(WAIT_PREFIX)) continue;
+            long[] w = waits.computeIfAbsent(step.action().substring(WAIT_PREFIX.length()), k -> new long[4]);
+            w[0] += step.count();
+            w[1] += step.totalMicros();
+            w[2] = Math.max(w[2], step.maxMicros());
+            w[3] += step.timeouts();
+        }
+        if (waits.isEmpty()) return null;
+        StringBuilder out = new StringBuilder("[Waits]");
+        waits.forEach((wait, w) -> out.append(String.format("%n  %-24s count=%-5d total=%6dms mean=%5dms max=%5dms timeouts=%d",
+                wait, w[0], w[1] / 1000, w[0] == 0 ? 0 : w[1] / 1000 / w[0], w[2] / 1000, w[3])));
+        return out.toString();
+    }
+
+    /** Writes the {@code top} slowest steps, by total time, as JSON and HTML into {@code dir}. */
+    public static void writeReport(Path dir, int top) {
+        List<Step> steps = steps();
+        List<Step> slowest = steps.subList(0, Math.min(top, steps.size()));
+        List<Step> timedOut = new ArrayList<>();
+        for (Step step : steps) {
+            if (step.timeouts() > 0) timedOut.add(step);
+        }
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("step-metrics.json"), toJson(slowest, timedOut), StandardCharsets.UTF_8);
+            Files.writeString(dir.resolve("step-metrics.html"), toHtml(slowest, timedOut), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String toJson(List<Step> slowest, List<Step> timedOut) {
+        StringBuilder out = new StringBuilder("{\n  \"slowest\": [");
+        appendJson(out, slowest);
+        out.append("],\n  \"timeouts\": [");
+        appendJson(out, timedOut);
+        return out.append("]\n}\n").toString();
+    }
+
+    static String toHtml(List<Step> slowest, List<Step> timedOut) {
+        StringBuilder out = new StringBuilder("<!DOCTYPE html>\n<html><head><meta charset=\"UTF-8\">"
+                + "<title>Step metrics</title><style>"
+                + "body{font-family:sans-serif}table{border-collapse:collapse}"
+                + "td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}"
+                + "td:nth-child(-n+3),th:nth-child(-n+3){text-align:left}"
+                + "</style></head><body>\n<h1>Slowest steps</h1>\n");
+        appendTable(out, slowest);
+        out.append("<h1>Steps with timeouts</h1>\n");
+        appendTable(out, timedOut);
+        return out.append("</body></html>\n").toString();
+    }
+
+    private static void appendJson(StringBuilder out, List<Step> steps) {
+        for (int i = 0; i < steps.size(); i++) {
+            Step s = steps.get(i);
+            out.append(i == 0 ? "\n" : ",\n").append("    {\"page\": ").append(quote(s.page()))
+                    .append(", \"action\": ").append(quote(s.action()))
+                    .append(", \"locator\": ").append(quote(s.locator()))
+                    .append(", \"count\": ").append(s.count())
+                    .append(", \"timeouts\": ").append(s.timeouts())
+                    .append(", \"totalMs\": ").append(millis(s.totalMicros()))
+                    .append(", \"p50Ms\": ").append(millis(s.p50Micros()))
+                    .append(", \"p95Ms\": ").append(millis(s.p95Micros()))
+                    .append(", \"p99Ms\": ").append(millis(s.p99Micros()))
+                    .append(", \"maxMs\": ").append(millis(s.maxMicros())).append('}');
+        }
+        if (!steps.isEmpty()) out.append("\n  ");
+    }
+
+    private static void appendTable(StringBuilder out, List<Step> steps) {
+        out.append("<table><tr><th>Page</th><th>Action</th><th>Locator</th><th>Count</th><th>Timeouts</th>"
+                + "<th>Total ms</th><th>p50 ms</th><th>p95 ms</th><th>p99 ms</th><th>Max ms</th></tr>\n");
+        for (Step s : steps) {
+            out.append("<tr><td>").append(escapeHtml(s.page())).append("</td><td>").append(escapeHtml(s.action()))
+                    .append("</td><td>").append(escapeHtml(s.locator())).append("</td><td>").append(s.count())
+                    .append("</td><td>").append(s.timeouts()).append("</td><td>").append(millis(s.totalMicros()))
+                    .append("</td><td>").append(millis(s.p50Micros())).append("</td><td>").append(millis(s.p95Micros()))
+                    .append("</td><td>").append(millis(s.p99Micros())).append("</td><td>").append(millis(s.maxMicros()))
+                    .append("</td></tr>\n");
+        }
+        out.append("</table>\n");
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.1f", micros / 1000.0);
+    }
+
+    private static String quote(String value) {
+        StringBuilder out = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+                    else out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    private static String escapeHtml(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) return (int) Math.max(0, micros);
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, (exponent - 2) * SUB_BUCKETS + sub);
+    }
+
+    /** The largest value that falls into {@code bucket}. */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + 2;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - 3)) - 1;
+    }
+
+    public record Step(String page, String action, String locator, long count, long timeouts,
+                       long totalMicros, long p50Micros, long p95Micros, long p99Micros, long maxMicros) {
+    }
+
+    private record Key(String page, String action, String locator) {
+    }
+
+    private static final class Histogram {
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        final LongAdder count = new LongAdder();
+        final LongAdder totalMicros = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+        void add(long nanos, boolean timedOut) {
+            long micros = nanos / 1000;
+            buckets.incrementAndGet(bucketOf(micros));
+            count.increment();
+            totalMicros.add(micros);
+            maxMicros.accumulate(micros);
+            if (timedOut) timeouts.increment();
+        }
+
+        Step toStep(Key key) {
+            long[] counts = new long[BUCKETS];
+            long n = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                n += counts[i];
+            }
+            long max = maxMicros.get();
+            return new Step(key.page(), key.action(), key.locator(), n, timeouts.sum(), totalMicros.sum(),
+                    percentile(counts, n, 0.50, max), percentile(counts, n, 0.95, max),
+                    percentile(counts, n, 0.99, max), max);
+        }
+
+        private static long percentile(long[] counts, long n, double p, long max) {
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(p * n);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(upperBound(i), max);
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package loipt.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of registered usernames and emails, compared case-insensitively.
+ * Emails also ignore surrounding whitespace, as {@link AccountService} does.
+ *
+ * <p>Both indexes are {@link ConcurrentHashMap}s, so lookups never lock and concurrent
+ * claims only contend when they hash to the same bin. A claim takes the username
+ * first and then the email; if the email is taken the username is released again, so
+ * another thread may briefly see that username as taken.
+ *
+ * <p>{@link #enableFilters} puts a {@link BloomFilter} in front of each index so that
+ * most values that were never registered are answered without touching the maps. The
+ * filters only serve the read-only checks ({@link #takenRules}, {@link #isUsernameTaken},
+ * {@link #isEmailTaken}); a claim has to insert into the maps either way, so it only pays
+ * for the filters when it succeeds. They are off by default: {@code AccountRegistryBenchmark}
+ * in Lab2_Benchmark shows that a miss in these in-memory maps is still cheaper than a
+ * filter probe, so they only pay off when a lookup is expensive.
+ */
+public class AccountRegistry {
+
+    private static final int SNAPSHOT_MAGIC = 0x41434354; // "ACCT"
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private final ConcurrentHashMap<String, String> emailByUsername;
+    private final ConcurrentHashMap<String, String> usernameByEmail;
+    private volatile Filters filters;
+
+    public AccountRegistry() {
+        this(16);
+    }
+
+    public AccountRegistry(int expectedAccounts) {
+        emailByUsername = new ConcurrentHashMap<>(expectedAccounts);
+        usernameByEmail = new ConcurrentHashMap<>(expectedAccounts);
+    }
+
+    /**
+     * Registers the pair if neither value is taken yet.
+     *
+     * @return 0 on success, otherwise the {@link RegistrationRule#USERNAME_TAKEN} and/or
+     * {@link RegistrationRule#EMAIL_TAKEN} bits
+     */
+    public int claim(CharSequence username, CharSequence email) {
+        String user = normalize(username);
+        String mail = normalizeEmail(email);
+        if (emailByUsername.putIfAbsent(user, mail) != null) {
+            int failed = RegistrationRule.USERNAME_TAKEN.mask();
+            if (usernameByEmail.containsKey(mail)) failed |= RegistrationRule.EMAIL_TAKEN.mask();
+            return failed;
+        }
+        if (usernameByEmail.putIfAbsent(mail, user) != null) {
+            emailByUsername.remove(user, mail);
+            return RegistrationRule.EMAIL_TAKEN.mask();
+        }
+        // only successful claims reach the filters; a check that runs before this line
+        // sees the account as not taken yet, the same as one that ran before the claim
+        Filters current = filters;
+        if (current != null) {
+            current.usernames.put(user);
+            current.emails.put(mail);
+        }
+        return 0;
+    }
+
+    /** The taken bits for the pair, without claiming anything. {@code null} values are never taken. */
+    public int takenRules(CharSequence username, CharSequence email) {
+        int failed = 0;
+        if (isUsernameTaken(username)) failed |= RegistrationRule.USERNAME_TAKEN.mask();
+        if (isEmailTaken(email)) failed |= RegistrationRule.EMAIL_TAKEN.mask();
+        return failed;
+    }
+
+    public boolean isUsernameTaken(CharSequence username) {
+        if (username == null) return false;
+        String user = normalize(username);
+        Filters current = filters;
+        if (current != null && !current.usernames.mightContain(user)) return false;
+        return emailByUsername.containsKey(user);
+    }
+
+    public boolean isEmailTaken(CharSequence email) {
+        if (email == null) return false;
+        String mail = normalizeEmail(email);
+        Filters current = filters;
+        if (current != null && !current.emails.mightContain(mail)) return false;
+        return usernameByEmail.containsKey(mail);
+    }
+
+    /**
+     * Builds Bloom pre-filters from the current accounts, sized for {@code expectedAccounts}
+     * (at least twice the current size) at the given false-positive rate. Calling it again
+     * rebuilds the filters, e.g. after they have filled past their expected size. Until the
+     * copy finishes, older accounts may be reported as not taken, so rebuild at startup or
+     * while traffic is quiet.
+     */
+    public void enableFilters(long expectedAccounts, double falsePositiveRate) {
+        long capacity = Math.max(expectedAccounts, 2L * size());
+        Filters rebuilt = new Filters(new BloomFilter(capacity, falsePositiveRate),
+                new BloomFilter(capacity, falsePositiveRate));
+        // publish first so concurrent claims land in the new filters while we copy
+        filters = rebuilt;
+        emailByUsername.forEach((user, mail) -> {
+            rebuilt.usernames.put(user);
+            rebuilt.emails.put(mail);
+        });
+    }
+
+    public void disableFilters() {
+        filters = null;
+    }
+
+    public boolean hasFilters() {
+        return filters != null;
+    }
+
+    public int size() {
+        return emailByUsername.size();
+    }
+
+    /**
+     * Writes every account to {@code file}. The snapshot is written to a temporary file
+     * first and moved into place, so a crash never leaves a half-written snapshot behind.
+     * Accounts claimed while the snapshot runs may or may not be included. A pair is only
+     * written when it is in both indexes, so a claim that is being rolled back because its
+     * email is taken never ends up in the snapshot.
+     */
+    public void snapshot(Path file) throws IOException {
+        // collect first: the record count goes before the records, and size() is only an
+        // estimate while other threads register
+        List<String> accounts = new ArrayList<>(2 * emailByUsername.size() + 16);
+        for (Map.Entry<String, String> account : usernameByEmail.entrySet()) {
+            String user = account.getValue();
+            String mail = account.getKey();
+            if (mail.equals(emailByUsername.get(user))) {
+                accounts.add(user);
+                accounts.add(mail);
+            }
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(accounts.size() / 2);
+                for (String value : accounts) writeString(out, value);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Loads a snapshot and builds Bloom pre-filters for its accounts. */
+    public static AccountRegistry load(Path file, double falsePositiveRate) throws IOException {
+        AccountRegistry registry = load(file);
+        registry.enableFilters(registry.size(), falsePositiveRate);
+        return registry;
+    }
+
+    /** Rebuilds a registry from a file written by {@link #snapshot}. */
+    public static AccountRegistry load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("Not an account snapshot: " + file);
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) throw new IOException("Unsupported snapshot version " + version);
+            int count = in.readInt();
+            if (count < 0) throw new IOException("Corrupt account snapshot: " + file);
+            AccountRegistry registry = new AccountRegistry(Math.max(16, count));
+            for (int i = 0; i < count; i++) registry.put(readString(in), readString(in));
+            return registry;
+        }
+    }
+
+    private void put(String username, String email) {
+        emailByUsername.put(username, email);
+        usernameByEmail.put(email, username);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) throw new IOException("Corrupt account snapshot");
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Filters {
+        final BloomFilter usernames;
+        final BloomFilter emails;
+
+        Filters(BloomFilter usernames, BloomFilter emails) {
+            this.usernames = usernames;
+            this.emails = emails;
+        }
+    }
+
+    static String normalize(CharSequence value) {
+        return value.toString().toLowerCase(Locale.ROOT);
+    }
+
+    static String normalizeEmail(CharSequence email) {
+        return email.toString().strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,28 +1,136 @@
 package loipt.example;
-import java.util.regex.Pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
 public class AccountService {
 
+    // below this size the fork/join split costs more than validating on the caller's thread
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    private static final int DOMAIN_CACHE_SIZE = 1024;
+
+    private final AccountRegistry registry;
+    private final EmailDomainCache domainCache;
+    private final PasswordPolicy passwordPolicy;
+
+    /** A service that only validates; every valid account is accepted. */
+    public AccountService() {
+        this(null);
+    }
+
+    /** A service that also rejects usernames and emails already in {@code registry}. */
+    public AccountService(AccountRegistry registry) {
+        this(registry, new EmailDomainCache(DOMAIN_CACHE_SIZE));
+    }
+
+    public AccountService(AccountRegistry registry, EmailDomainCache domainCache) {
+        this(registry, domainCache, PasswordPolicy.DEFAULT);
+    }
+
+    public AccountService(AccountRegistry registry, EmailDomainCache domainCache, PasswordPolicy passwordPolicy) {
+        this.registry = registry;
+        this.domainCache = domainCache;
+        this.passwordPolicy = passwordPolicy;
+    }
+
+    public AccountRegistry getRegistry() {
+        return registry;
+    }
+
+    public EmailDomainCache getDomainCache() {
+        return domainCache;
+    }
+
+    public PasswordPolicy getPasswordPolicy() {
+        return passwordPolicy;
+    }
+
     public boolean isValidEmail(String email) {
+        return isValidEmail((CharSequence) email);
+    }
+
+    /**
+     * Ignores surrounding whitespace, validates the local part and looks the domain up in
+     * the domain cache. Apart from the trimming this accepts the same addresses as
+     * {@link AccountValidator#isValidEmail}.
+     */
+    private boolean isValidEmail(CharSequence email) {
         if (email == null) return false;
-        String regex = "^[\\w.-]+@[\\w.-]+\\.[a-zA-Z]{2,}$";
-        return Pattern.matches(regex, email);
+        int from = 0;
+        int to = email.length();
+        while (from < to && Character.isWhitespace(email.charAt(from))) from++;
+        while (to > from && Character.isWhitespace(email.charAt(to - 1))) to--;
+        int at = AccountValidator.indexOf(email, '@', from, to);
+        return at >= 0
+                && AccountValidator.isValidEmailLocalPart(email, from, at)
+                && domainCache.isValidDomain(email, at + 1, to);
     }
 
     public boolean registerAccount(String username, String password, String email) {
-        if (username == null || username.isEmpty()) return false;
-        if (password == null || password.length() <= 6) return false;
-        if (!isValidEmail(email)) return false;
-        return true;
+        return register(username, password, email) == 0;
+    }
+
+    /**
+     * Validates the account and, if it passes and the service has a registry, claims its
+     * username and email. Returns the failed rule bits, 0 if the account was registered.
+     */
+    public int register(CharSequence username, CharSequence password, CharSequence email) {
+        int failed = formatRules(username, password, email);
+        if (registry == null) return failed;
+        if (failed != 0) return failed | registry.takenRules(username, email);
+        return registry.claim(username, email);
+    }
+
+    /**
+     * Runs every registration rule once and returns the {@link RegistrationRule#mask()} bits
+     * of the rules that failed, or 0 if the account can be registered. Accepts any
+     * {@link CharSequence}, so field views from {@link MappedCsvReader} need no copy.
+     * Nothing is registered; use {@link #register} for that.
+     */
+    public int validateAccount(CharSequence username, CharSequence password, CharSequence email) {
+        int failed = formatRules(username, password, email);
+        return registry == null ? failed : failed | registry.takenRules(username, email);
+    }
+
+    private int formatRules(CharSequence username, CharSequence password, CharSequence email) {
+        int failed = 0;
+        if (username == null || username.isEmpty()) failed |= RegistrationRule.USERNAME_REQUIRED.mask();
+        if (password == null || password.length() <= 6) failed |= RegistrationRule.PASSWORD_LENGTH.mask();
+        if (!isValidEmail(email)) failed |= RegistrationRule.EMAIL_FORMAT.mask();
+        return failed;
+    }
+
+    /**
+     * Registers every request, in parallel across the common fork/join pool for large
+     * batches. The result keeps the order of {@code requests}. When the same username or
+     * email appears twice in one parallel batch, either row may be the one accepted.
+     */
+    public BatchRegistrationResult registerAccounts(List<RegistrationRequest> requests) {
+        List<RegistrationRequest> rowsByIndex = requests instanceof RandomAccess ? requests : new ArrayList<>(requests);
+        int size = requests.size();
+        byte[] codes = new byte[size];
+        IntStream rows = IntStream.range(0, size);
+        if (size >= PARALLEL_THRESHOLD) rows = rows.parallel();
+        rows.forEach(i -> {
+            RegistrationRequest request = rowsByIndex.get(i);
+            codes[i] = (byte) register(request.username(), request.password(), request.email());
+        });
+        return new BatchRegistrationResult(codes);
+    }
+
+    public BatchRegistrationResult registerAccounts(Stream<RegistrationRequest> requests) {
+        return registerAccounts(requests.toList());
     }
 
     public boolean isValidUsername(String username) {
-        if (username == null || username.isEmpty()) return false;
-        String regex = "^[a-zA-Z0-9_]{3,20}$";
-        return Pattern.matches(regex, username);
+        return AccountValidator.isValidUsername(username);
     }
 
     public boolean isStrongPassword(String password) {
-        if (password == null) return false;
-        String regex = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$";
-        return Pattern.matches(regex, password);}
+        return passwordPolicy.test(password);
+    }
 }
@@ -0,0 +1,85 @@
+package loipt.example;
+
+/**
+ * Single-pass character scanners for the account rules used by {@link AccountService}.
+ * Each method accepts exactly the same inputs as the regex it replaces, without
+ * compiling a pattern or allocating a matcher per call.
+ */
+public final class AccountValidator {
+
+    static final int USERNAME_MIN_LENGTH = 3;
+    static final int USERNAME_MAX_LENGTH = 20;
+    static final int PASSWORD_MIN_LENGTH = 8;
+
+    private AccountValidator() {
+    }
+
+    /** Equivalent to {@code ^[\w.-]+@[\w.-]+\.[a-zA-Z]{2,}$}. */
+    public static boolean isValidEmail(CharSequence email) {
+        if (email == null) return false;
+        int at = indexOf(email, '@', 0, email.length());
+        return at >= 0
+                && isValidEmailLocalPart(email, 0, at)
+                && isValidEmailDomain(email, at + 1, email.length());
+    }
+
+    /** Whether {@code email[from, to)} matches {@code [\w.-]+}, the part before the '@'. */
+    public static boolean isValidEmailLocalPart(CharSequence email, int from, int to) {
+        if (to <= from) return false;
+        for (int i = from; i < to; i++) {
+            char c = email.charAt(i);
+            if (!isWordChar(c) && c != '.' && c != '-') return false;
+        }
+        return true;
+    }
+
+    /** Whether {@code email[from, to)} matches {@code [\w.-]+\.[a-zA-Z]{2,}}, the part after the '@'. */
+    public static boolean isValidEmailDomain(CharSequence email, int from, int to) {
+        int lastDot = -1;
+        for (int i = from; i < to; i++) {
+            char c = email.charAt(i);
+            if (c == '.') lastDot = i;
+            else if (!isWordChar(c) && c != '-') return false;
+        }
+        // the label before the last dot must be non-empty and the top-level domain two letters or more
+        if (lastDot < from + 1 || to - lastDot - 1 < 2) return false;
+        for (int i = lastDot + 1; i < to; i++) {
+            if (!isAsciiLetter(email.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /** Equivalent to {@code ^[a-zA-Z0-9_]{3,20}$}. */
+    public static boolean isValidUsername(CharSequence username) {
+        if (username == null) return false;
+        int length = username.length();
+        if (length < USERNAME_MIN_LENGTH || length > USERNAME_MAX_LENGTH) return false;
+        for (int i = 0; i < length; i++) {
+            if (!isWordChar(username.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Equivalent to {@code ^(?=.*[a-z])(?=.*[A-Z])(?=.*\d)(?=.*[@$!%*?&])[A-Za-z\d@$!%*?&]{8,}$};
+     * evaluated by {@link PasswordPolicy#DEFAULT}.
+     */
+    public static boolean isStrongPassword(CharSequence password) {
+        return PasswordPolicy.DEFAULT.test(password);
+    }
+
+    static int indexOf(CharSequence s, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+
+    static boolean isWordChar(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,41 @@
+package loipt.example;
+
+import java.util.EnumSet;
+
+/**
+ * Per-row outcome of {@link AccountService#registerAccounts}, in input order.
+ * Each row is stored as one byte holding the {@link RegistrationRule} bits it failed.
+ */
+public final class BatchRegistrationResult {
+
+    private final byte[] failedRules;
+
+    BatchRegistrationResult(byte[] failedRules) {
+        this.failedRules = failedRules;
+    }
+
+    public int size() {
+        return failedRules.length;
+    }
+
+    public boolean isSuccess(int row) {
+        return failedRules[row] == 0;
+    }
+
+    /** The failed rule bits of a row, as returned by {@link AccountService#register}. */
+    public int failedMask(int row) {
+        return failedRules[row];
+    }
+
+    public EnumSet<RegistrationRule> failedRules(int row) {
+        return RegistrationRule.fromMask(failedRules[row]);
+    }
+
+    public int successCount() {
+        int count = 0;
+        for (byte rules : failedRules) {
+            if (rules == 0) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,103 @@
+package loipt.example;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter over strings. {@link #mightContain} never returns
+ * {@code false} for a value that was {@link #put}, and returns {@code true} for other
+ * values with about the configured false-positive rate while the filter holds no more
+ * than its expected number of values.
+ *
+ * <p>Bits are packed 64 to a {@code long} and set with CAS, so concurrent puts never
+ * lose a bit. The filter is blocked: a value's k bits all fall in one 512-bit block (one
+ * cache line), so a lookup touches one line instead of k scattered ones, at the price of
+ * a slightly higher false-positive rate. The block and the bits inside it come from
+ * {@link String#hashCode()}, which the string caches and the registry maps need anyway.
+ */
+public final class BloomFilter {
+
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BITS = BLOCK_WORDS * 64;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final long blockCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions values the filter is sized for
+     * @param falsePositiveRate  target rate of false "might contain" answers, in (0, 1)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1): " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        long blocks = Math.min((Integer.MAX_VALUE - 8) / BLOCK_WORDS, Math.max(1, (bits + BLOCK_BITS - 1) / BLOCK_BITS));
+        this.words = new AtomicLongArray((int) blocks * BLOCK_WORDS);
+        this.blockCount = blocks;
+        this.bitCount = blocks * BLOCK_BITS;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * ln2));
+    }
+
+    public void put(String value) {
+        long h = hash(value);
+        int base = block(h);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            int word = base + (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                long witness = words.compareAndExchange(word, current, current | mask);
+                if (witness == current) break;
+                current = witness;
+            }
+        }
+    }
+
+    /** {@code false} means the value was definitely never put. */
+    public boolean mightContain(String value) {
+        long h = hash(value);
+        int base = block(h);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            if ((words.get(base + (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    // index of the block's first word; the block comes from a second mix so it is independent of the bits
+    private int block(long h) {
+        long b = mix(h ^ 0x9e3779b97f4a7c15L) >>> 32;
+        return (int) ((b * blockCount) >>> 32) * BLOCK_WORDS;
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    // the string's cached hash code, spread over 64 bits with the MurmurHash3 fmix64 step
+    private static long hash(String value) {
+        return mix(value.hashCode());
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
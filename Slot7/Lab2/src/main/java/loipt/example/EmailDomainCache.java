@@ -0,0 +1,136 @@
+package loipt.example;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of email domain verdicts, keyed by the domain lower-cased.
+ *
+ * <p>The cache is 4-way set associative: a domain hashes to one set of four slots and,
+ * when the set is full, replaces the least recently used of them. Lookups compare the
+ * domain in place, ignoring ASCII case, so a hit allocates nothing. An entry's domain
+ * and verdict never change and slots are replaced atomically, so no lookup ever locks;
+ * two threads missing on the same domain at once may both validate it.
+ */
+public final class EmailDomainCache {
+
+    private static final int WAYS = 4;
+    // longer domains are validated every time rather than evicting common ones
+    private static final int MAX_CACHED_LENGTH = 255;
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int setMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // approximate recency clock; lost updates between threads only blur the LRU order
+    private long tick;
+
+    /** @param capacity number of domains kept, rounded up to a power of two */
+    public EmailDomainCache(int capacity) {
+        if (capacity < WAYS) throw new IllegalArgumentException("capacity must be at least " + WAYS);
+        int sets = 1;
+        while (sets * WAYS < capacity) sets <<= 1;
+        this.slots = new AtomicReferenceArray<>(sets * WAYS);
+        this.setMask = sets - 1;
+    }
+
+    /** Whether {@code email[from, to)} is a valid domain, as {@link AccountValidator#isValidEmailDomain}. */
+    public boolean isValidDomain(CharSequence email, int from, int to) {
+        int length = to - from;
+        if (length > MAX_CACHED_LENGTH) {
+            misses.increment();
+            return AccountValidator.isValidEmailDomain(email, from, to);
+        }
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + lower(email.charAt(i));
+        }
+        hash ^= hash >>> 16;
+        int base = (hash & setMask) * WAYS;
+        long now = ++tick;
+
+        int victim = base;
+        long oldest = Long.MAX_VALUE;
+        for (int way = base; way < base + WAYS; way++) {
+            Entry entry = slots.get(way);
+            if (entry != null && entry.hash == hash && entry.matches(email, from, to)) {
+                entry.lastUsed = now;
+                hits.increment();
+                return entry.valid;
+            }
+            long used = entry == null ? -1 : entry.lastUsed;
+            if (used < oldest) {
+                victim = way;
+                oldest = used;
+            }
+        }
+
+        misses.increment();
+        boolean valid = AccountValidator.isValidEmailDomain(email, from, to);
+        char[] key = new char[length];
+        for (int i = 0; i < length; i++) {
+            key[i] = lower(email.charAt(from + i));
+        }
+        slots.set(victim, new Entry(new String(key), hash, valid, now));
+        return valid;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Share of lookups answered from the cache, 0 before the first lookup. */
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EmailDomainCache[capacity=%d, hits=%d, misses=%d, hitRate=%.3f]",
+                capacity(), hits(), misses(), hitRate());
+    }
+
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static final class Entry {
+        final String domain;
+        final int hash;
+        final boolean valid;
+        volatile long lastUsed;
+
+        Entry(String domain, int hash, boolean valid, long lastUsed) {
+            this.domain = domain;
+            this.hash = hash;
+            this.valid = valid;
+            this.lastUsed = lastUsed;
+        }
+
+        boolean matches(CharSequence email, int from, int to) {
+            if (domain.length() != to - from) return false;
+            for (int i = 0; i < domain.length(); i++) {
+                if (domain.charAt(i) != lower(email.charAt(from + i))) return false;
+            }
+            return true;
+        }
+    }
+}
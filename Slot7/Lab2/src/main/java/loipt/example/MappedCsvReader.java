@@ -0,0 +1,301 @@
+package loipt.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reads a UTF-8 CSV file through memory-mapped regions of a {@link FileChannel}.
+ *
+ * <p>The data after the header line is split on line boundaries into chunks that can
+ * be parsed in parallel. Plain ASCII fields are handed to the {@link RowHandler} as
+ * {@link CharSequence} views over the mapped bytes; only quoted fields and fields with
+ * non-ASCII bytes are decoded into a {@code String}. A view is only valid during the
+ * {@code handle} call, so call {@code toString()} on fields that must be kept.
+ *
+ * <p>Quoting follows RFC 4180, but quoted fields must not contain line breaks because
+ * chunks are cut at any newline. Empty lines are skipped, like commons-csv does.
+ */
+public final class MappedCsvReader implements Closeable {
+
+    // keeps every mapped region well below the 2 GB limit of a single MappedByteBuffer
+    private static final long MAX_CHUNK_BYTES = 1L << 28;
+    private static final int SCAN_BUFFER_BYTES = 8192;
+
+    private final FileChannel channel;
+    private final long size;
+    private final List<String> header;
+    private final long dataStart;
+
+    private MappedCsvReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.dataStart = nextLineStart(0);
+        List<String> names = new ArrayList<>();
+        if (dataStart > 0) {
+            Chunk first = new Chunk(map(0, dataStart));
+            first.parse(row -> {
+                for (int i = 0; i < row.size(); i++) names.add(row.get(i).toString());
+            });
+        }
+        this.header = Collections.unmodifiableList(names);
+    }
+
+    public static MappedCsvReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new MappedCsvReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public List<String> header() {
+        return header;
+    }
+
+    /** Index of a header column, or -1 if the file has no such column. */
+    public int column(String name) {
+        return header.indexOf(name);
+    }
+
+    /** Parses every row on the calling thread, in file order. Returns the row count. */
+    public long forEach(RowHandler handler) throws IOException {
+        long rows = 0;
+        for (Chunk chunk : chunks(1)) {
+            rows += chunk.parse(handler);
+        }
+        return rows;
+    }
+
+    /**
+     * Parses chunks concurrently on the common fork/join pool. The handler is called
+     * from several threads at once and rows of different chunks arrive in no fixed order.
+     */
+    public long forEachParallel(RowHandler handler) throws IOException {
+        return chunks(ForkJoinPool.getCommonPoolParallelism()).parallelStream()
+                .mapToLong(chunk -> chunk.parse(handler))
+                .sum();
+    }
+
+    /**
+     * Splits the rows after the header into about {@code count} chunks, each starting at
+     * the beginning of a line. Large files get more chunks so no region exceeds 256 MB.
+     */
+    public List<Chunk> chunks(int count) throws IOException {
+        long dataSize = size - dataStart;
+        if (dataSize <= 0) return List.of();
+        long minimum = (dataSize + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES;
+        int target = (int) Math.max(Math.max(count, 1), minimum);
+
+        List<Chunk> chunks = new ArrayList<>(target);
+        long start = dataStart;
+        for (int k = 1; k <= target && start < size; k++) {
+            long end = k == target ? size : nextLineStart(Math.max(start, dataStart + dataSize * k / target));
+            if (end > start) {
+                chunks.add(new Chunk(map(start, end)));
+                start = end;
+            }
+        }
+        return chunks;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer map(long start, long end) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    }
+
+    // offset just after the first '\n' at or after position, or the file size
+    private long nextLineStart(long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long offset = position;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') return offset + i + 1;
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    /** Receives parsed rows. The row and its fields are reused after the call returns. */
+    @FunctionalInterface
+    public interface RowHandler {
+        void handle(Row row);
+    }
+
+    /** One parsed record. Fields beyond the end of the record are not present. */
+    public static final class Row {
+        private CharSequence[] fields = new CharSequence[8];
+        private ByteSlice[] slices = new ByteSlice[8];
+        private int size;
+
+        public int size() {
+            return size;
+        }
+
+        public CharSequence get(int index) {
+            if (index >= size) throw new IndexOutOfBoundsException("Field " + index + " of " + size);
+            return fields[index];
+        }
+
+        /** Field at {@code index}, or {@code null} when the record is shorter. */
+        public CharSequence getOrNull(int index) {
+            return index >= 0 && index < size ? fields[index] : null;
+        }
+
+        private void reset() {
+            size = 0;
+        }
+
+        private void grow() {
+            if (size == fields.length) {
+                fields = Arrays.copyOf(fields, size * 2);
+                slices = Arrays.copyOf(slices, size * 2);
+            }
+        }
+
+        private void addSlice(ByteBuffer buffer, int start, int end) {
+            grow();
+            ByteSlice slice = slices[size];
+            if (slice == null) slice = slices[size] = new ByteSlice();
+            slice.set(buffer, start, end);
+            fields[size++] = slice;
+        }
+
+        private void addDecoded(String value) {
+            grow();
+            fields[size++] = value;
+        }
+    }
+
+    /** A line-aligned region of the file. Each chunk can be parsed on its own thread. */
+    public static final class Chunk {
+        private final ByteBuffer buffer;
+
+        private Chunk(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public int byteSize() {
+            return buffer.limit();
+        }
+
+        /** Parses every row of this chunk. Returns the number of rows handed to the handler. */
+        public long parse(RowHandler handler) {
+            ByteBuffer buf = buffer;
+            int limit = buf.limit();
+            Row row = new Row();
+            byte[] scratch = new byte[64];
+            long rows = 0;
+            int pos = 0;
+            while (pos < limit) {
+                row.reset();
+                boolean endOfRecord = false;
+                while (!endOfRecord) {
+                    if (pos < limit && buf.get(pos) == '"') {
+                        // quoted field: unescape "" and decode the bytes into a String
+                        int length = 0;
+                        pos++;
+                        while (pos < limit) {
+                            byte b = buf.get(pos++);
+                            if (b == '"') {
+                                if (pos < limit && buf.get(pos) == '"') {
+                                    pos++;
+                                } else {
+                                    break;
+                                }
+                            }
+                            if (length == scratch.length) scratch = Arrays.copyOf(scratch, length * 2);
+                            scratch[length++] = b;
+                        }
+                        row.addDecoded(new String(scratch, 0, length, StandardCharsets.UTF_8));
+                        while (pos < limit && buf.get(pos) != ',' && buf.get(pos) != '\n') pos++;
+                    } else {
+                        int start = pos;
+                        boolean ascii = true;
+                        while (pos < limit) {
+                            byte b = buf.get(pos);
+                            if (b == ',' || b == '\n') break;
+                            if (b < 0) ascii = false;
+                            pos++;
+                        }
+                        int end = pos;
+                        if (end > start && buf.get(end - 1) == '\r' && (end == limit || buf.get(end) == '\n')) end--;
+                        if (ascii) {
+                            row.addSlice(buf, start, end);
+                        } else {
+                            byte[] bytes = new byte[end - start];
+                            buf.get(start, bytes);
+                            row.addDecoded(new String(bytes, StandardCharsets.UTF_8));
+                        }
+                    }
+                    if (pos < limit && buf.get(pos) == ',') {
+                        pos++;
+                    } else {
+                        pos++; // skip '\n', or step past the end of the chunk
+                        endOfRecord = true;
+                    }
+                }
+                if (row.size() == 1 && row.get(0).length() == 0) continue;
+                handler.handle(row);
+                rows++;
+            }
+            return rows;
+        }
+    }
+
+    /** ASCII bytes of the mapped file seen as characters, without copying. */
+    private static final class ByteSlice implements CharSequence {
+        private ByteBuffer buffer;
+        private int start;
+        private int length;
+
+        void set(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.length = end - start;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) throw new IndexOutOfBoundsException(index);
+            return (char) buffer.get(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return toString().substring(from, to);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+}
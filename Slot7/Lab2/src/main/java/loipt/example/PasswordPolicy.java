@@ -0,0 +1,242 @@
+package loipt.example;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A password policy built from composable {@link PasswordRule}s.
+ *
+ * <p>Rules run cheapest first and evaluation stops at the first failure. Rules about
+ * character classes share one pass over the password, which itself stops at the first
+ * character outside the allowed classes.
+ *
+ * <p>{@link #DEFAULT} is the policy {@code isStrongPassword} has always enforced: at
+ * least 8 characters, only letters, digits and {@code @$!%*?&}, and at least one of
+ * each of those four classes.
+ */
+public final class PasswordPolicy {
+
+    public static final int LOWERCASE = 1;
+    public static final int UPPERCASE = 1 << 1;
+    public static final int DIGIT = 1 << 2;
+    public static final int SPECIAL = 1 << 3;
+    /** Any character that is none of the above, including all non-ASCII characters. */
+    public static final int OTHER = 1 << 4;
+    /** Set in the scan result when a character outside the allowed classes was found. */
+    public static final int DISALLOWED = 1 << 30;
+
+    private static final String DEFAULT_SPECIALS = "@$!%*?&";
+
+    public static final PasswordPolicy DEFAULT = builder()
+            .minLength(AccountValidator.PASSWORD_MIN_LENGTH)
+            .allowedClasses(LOWERCASE | UPPERCASE | DIGIT | SPECIAL)
+            .require(LOWERCASE)
+            .require(UPPERCASE)
+            .require(DIGIT)
+            .require(SPECIAL)
+            .build();
+
+    // reported for a null password, which no rule is asked about
+    private static final PasswordRule NOT_NULL = new BuiltInRule("required", 0, BuiltInRule.NOT_NULL, 0, null);
+
+    private final byte[] asciiClasses;
+    private final int otherClass;
+    private final PasswordRule[] rules;
+
+    private PasswordPolicy(Builder builder) {
+        this.asciiClasses = new byte[128];
+        for (char c = 0; c < 128; c++) {
+            int cls;
+            if (c >= 'a' && c <= 'z') cls = LOWERCASE;
+            else if (c >= 'A' && c <= 'Z') cls = UPPERCASE;
+            else if (c >= '0' && c <= '9') cls = DIGIT;
+            else if (builder.specials.indexOf(c) >= 0) cls = SPECIAL;
+            else cls = OTHER;
+            // 0 marks a disallowed character, so the scan needs one test per character
+            asciiClasses[c] = (byte) (cls & builder.allowedClasses);
+        }
+        this.otherClass = OTHER & builder.allowedClasses;
+        List<PasswordRule> sorted = new ArrayList<>(builder.rules);
+        sorted.sort(Comparator.comparingInt(PasswordRule::cost));
+        this.rules = sorted.toArray(new PasswordRule[0]);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean test(CharSequence password) {
+        return firstFailure(password) == null;
+    }
+
+    /** The first rule the password fails, or {@code null} if it satisfies the policy. */
+    public PasswordRule firstFailure(CharSequence password) {
+        if (password == null) return NOT_NULL;
+        int classesSeen = -1;
+        for (PasswordRule rule : rules) {
+            if (rule instanceof BuiltInRule) {
+                BuiltInRule builtIn = (BuiltInRule) rule;
+                if (classesSeen < 0 && builtIn.needsScan()) classesSeen = scan(password);
+                if (!builtIn.check(password, classesSeen)) return rule;
+            } else {
+                if (classesSeen < 0 && rule.needsScan()) classesSeen = scan(password);
+                if (!rule.test(password, classesSeen)) return rule;
+            }
+        }
+        return null;
+    }
+
+    /** The character class bits of {@code password}, stopping at the first disallowed character. */
+    int scan(CharSequence password) {
+        byte[] classes = asciiClasses;
+        int seen = 0;
+        for (int i = 0, length = password.length(); i < length; i++) {
+            char c = password.charAt(i);
+            int cls = c < 128 ? classes[c] : otherClass;
+            if (cls == 0) return seen | DISALLOWED;
+            seen |= cls;
+        }
+        return seen;
+    }
+
+    public static final class Builder {
+        private final List<PasswordRule> rules = new ArrayList<>();
+        private String specials = DEFAULT_SPECIALS;
+        private int allowedClasses = LOWERCASE | UPPERCASE | DIGIT | SPECIAL | OTHER;
+        private boolean allowedRuleAdded;
+
+        private Builder() {
+        }
+
+        public Builder minLength(int min) {
+            return rule(new BuiltInRule("minLength", 0, BuiltInRule.MIN_LENGTH, min, null));
+        }
+
+        /** Guards against oversized input before any character is scanned. */
+        public Builder maxLength(int max) {
+            return rule(new BuiltInRule("maxLength", 0, BuiltInRule.MAX_LENGTH, max, null));
+        }
+
+        /** Which ASCII characters count as {@link #SPECIAL}; the default is {@code @$!%*?&}. */
+        public Builder specialCharacters(String characters) {
+            for (int i = 0; i < characters.length(); i++) {
+                char c = characters.charAt(i);
+                if (c >= 128 || Character.isLetterOrDigit(c)) {
+                    throw new IllegalArgumentException("Not an ASCII special character: " + c);
+                }
+            }
+            this.specials = characters;
+            return this;
+        }
+
+        /** Rejects passwords with a character outside {@code classes}. */
+        public Builder allowedClasses(int classes) {
+            this.allowedClasses = classes;
+            if (!allowedRuleAdded) {
+                allowedRuleAdded = true;
+                rule(new BuiltInRule("allowedCharacters", 10, BuiltInRule.ALLOWED, 0, null));
+            }
+            return this;
+        }
+
+        /** Requires at least one character of the given class. */
+        public Builder require(int characterClass) {
+            return rule(new BuiltInRule("require" + className(characterClass), 20,
+                    BuiltInRule.REQUIRE, characterClass, null));
+        }
+
+        /** Rejects any of {@code banned}, compared case-insensitively. */
+        public Builder bannedPasswords(Collection<String> banned) {
+            Set<String> lowered = new HashSet<>();
+            for (String password : banned) lowered.add(password.toLowerCase(Locale.ROOT));
+            return rule(new BuiltInRule("notBanned", 30, BuiltInRule.NOT_BANNED, 0, lowered));
+        }
+
+        public Builder rule(PasswordRule rule) {
+            rules.add(rule);
+            return this;
+        }
+
+        public PasswordPolicy build() {
+            return new PasswordPolicy(this);
+        }
+
+        private static String className(int characterClass) {
+            switch (characterClass) {
+                case LOWERCASE: return "Lowercase";
+                case UPPERCASE: return "Uppercase";
+                case DIGIT: return "Digit";
+                case SPECIAL: return "Special";
+                default: return "Class" + characterClass;
+            }
+        }
+    }
+
+    /**
+     * The rules the builder creates. The policy calls {@link #check} through this final
+     * class, so the hot loop never makes a megamorphic interface call for them.
+     */
+    private static final class BuiltInRule implements PasswordRule {
+        static final int NOT_NULL = 0;
+        static final int MIN_LENGTH = 1;
+        static final int MAX_LENGTH = 2;
+        static final int ALLOWED = 3;
+        static final int REQUIRE = 4;
+        static final int NOT_BANNED = 5;
+
+        private final String name;
+        private final int cost;
+        private final int kind;
+        private final int param;
+        private final Set<String> banned;
+
+        BuiltInRule(String name, int cost, int kind, int param, Set<String> banned) {
+            this.name = name;
+            this.cost = cost;
+            this.kind = kind;
+            this.param = param;
+            this.banned = banned;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+
+        @Override
+        public boolean needsScan() {
+            return kind == ALLOWED || kind == REQUIRE;
+        }
+
+        @Override
+        public boolean test(CharSequence password, int classesSeen) {
+            return check(password, classesSeen);
+        }
+
+        boolean check(CharSequence password, int classesSeen) {
+            switch (kind) {
+                case MIN_LENGTH: return password.length() >= param;
+                case MAX_LENGTH: return password.length() <= param;
+                case ALLOWED: return (classesSeen & DISALLOWED) == 0;
+                case REQUIRE: return (classesSeen & param) != 0;
+                case NOT_BANNED: return !banned.contains(password.toString().toLowerCase(Locale.ROOT));
+                default: return true;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package loipt.example;
+
+/**
+ * One check of a {@link PasswordPolicy}. Rules run in ascending {@link #cost()} order
+ * and evaluation stops at the first rule that fails.
+ */
+public interface PasswordRule {
+
+    /** Short name used when reporting the failure, e.g. {@code "minLength"}. */
+    String name();
+
+    /** Relative cost; cheaper rules run first. The built-in rules use 0 to 30. */
+    int cost();
+
+    /**
+     * Whether the rule reads the character classes of the password. The policy scans
+     * the password once, before the first rule that needs it, and shares the result.
+     */
+    default boolean needsScan() {
+        return false;
+    }
+
+    /**
+     * @param password     the password, never {@code null}
+     * @param classesSeen  the {@link PasswordPolicy} class bits found in the password, or
+     *                     -1 if no rule so far needed the scan
+     */
+    boolean test(CharSequence password, int classesSeen);
+}
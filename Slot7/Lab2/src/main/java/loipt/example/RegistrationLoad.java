@@ -0,0 +1,66 @@
+package loipt.example;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes concurrent registrations through {@link AccountService#registerAccount} with
+ * {@link LoadGenerator} and prints throughput and latency percentiles.
+ *
+ * <p>Settings are system properties: {@code load.concurrency} (default 64),
+ * {@code load.rampUpSeconds} (2), {@code load.durationSeconds} (10), and {@code load.mix},
+ * the weights of new, duplicate and invalid registrations (default {@code 70,20,10}).
+ * With {@code load.registry=false} the service only validates and no
+ * {@link AccountRegistry} is involved.
+ *
+ * <p>Duplicates reuse one of {@code load.seedAccounts} (default 1000) accounts registered
+ * before the run. Names the "new" operation hands out may still be in flight, so picking
+ * from those could register a name first and make a later "new" call fail.
+ */
+public class RegistrationLoad {
+
+    private static final String VALID_PASSWORD = "Str0ng!Pass";
+    // chuỗi bất kỳ, chuỗi rỗng và null, như dữ liệu người dùng nhập vào
+    private static final String[] INVALID_USERNAMES = {"Hello World", "Java Spring", "", null};
+    private static final String[] INVALID_PASSWORDS = {"short", "password", "PASSWORD123", "", null};
+    private static final String[] INVALID_EMAILS = {"bobmail.com", "a@b", "@example.com", "", null};
+
+    public static void main(String[] args) {
+        String[] parts = System.getProperty("load.mix", "70,20,10").split(",");
+        if (parts.length != 3) throw new IllegalArgumentException("load.mix needs three weights");
+        boolean withRegistry = Boolean.parseBoolean(System.getProperty("load.registry", "true"));
+        AccountService service = withRegistry ? new AccountService(new AccountRegistry()) : new AccountService();
+        int seeds = Integer.getInteger("load.seedAccounts", 1000);
+        if (seeds < 1) throw new IllegalArgumentException("load.seedAccounts must be at least 1");
+        for (int i = 0; i < seeds; i++) {
+            service.registerAccount("seed" + i, VALID_PASSWORD, "seed" + i + "@example.com");
+        }
+        AtomicLong registered = new AtomicLong();
+
+        LoadGenerator generator = new LoadGenerator(
+                Integer.getInteger("load.concurrency", 64),
+                Duration.ofSeconds(Integer.getInteger("load.rampUpSeconds", 2)),
+                Duration.ofSeconds(Integer.getInteger("load.durationSeconds", 10)))
+                .add("new", Integer.parseInt(parts[0].trim()), random -> {
+                    long n = registered.getAndIncrement();
+                    return LoadGenerator.Outcome.of(
+                            service.registerAccount("user" + n, VALID_PASSWORD, "user" + n + "@example.com"));
+                })
+                .add("duplicate", Integer.parseInt(parts[1].trim()), random -> {
+                    // tên đã đăng ký trước khi chạy phải bị từ chối khi có registry
+                    int n = random.nextInt(seeds);
+                    boolean accepted = service.registerAccount("seed" + n, VALID_PASSWORD, "seed" + n + "@example.com");
+                    return LoadGenerator.Outcome.of(withRegistry != accepted);
+                })
+                .add("invalid", Integer.parseInt(parts[2].trim()), random -> LoadGenerator.Outcome.of(!service.registerAccount(
+                        pick(random, INVALID_USERNAMES), pick(random, INVALID_PASSWORDS), pick(random, INVALID_EMAILS))));
+
+        System.out.println("Generating registration load...");
+        System.out.print(generator.run());
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
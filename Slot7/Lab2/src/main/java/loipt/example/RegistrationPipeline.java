@@ -0,0 +1,220 @@
+package loipt.example;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams a registration CSV through {@link AccountService} with bounded memory.
+ *
+ * <p>A reader thread parses records into batches, a validator thread runs
+ * {@link AccountService#register} on them in file order and the calling thread writes the
+ * results. The stages are connected by bounded queues, so a slow writer makes the
+ * reader wait instead of buffering the whole file.
+ *
+ * <p>The input needs a header with {@code username}, {@code password} and
+ * {@code email} columns. Every input column is copied to the output, followed by
+ * {@code valid} and {@code failedRules}.
+ */
+public class RegistrationPipeline {
+
+    private static final CSVFormat INPUT_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .build();
+    private static final Batch END = new Batch(new String[0][], 0);
+
+    private final AccountService accountService;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    public RegistrationPipeline(AccountService accountService) {
+        this(accountService, 512, 8);
+    }
+
+    /**
+     * @param batchSize     rows handed between stages at a time
+     * @param queueCapacity batches each queue holds before the producing stage blocks
+     */
+    public RegistrationPipeline(AccountService accountService, int batchSize, int queueCapacity) {
+        if (batchSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("batchSize and queueCapacity must be positive");
+        }
+        this.accountService = accountService;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Summary run(Path input, Path output) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            return run(reader, writer);
+        }
+    }
+
+    /** Runs the pipeline to the end of {@code input}. Neither stream is closed. */
+    public Summary run(Reader input, Writer output) throws IOException {
+        BlockingQueue<Batch> toValidate = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Batch> toWrite = new ArrayBlockingQueue<>(queueCapacity);
+        ExecutorService stages = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "registration-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CSVParser parser = new CSVParser(input, INPUT_FORMAT);
+            List<String> header = parser.getHeaderNames();
+            int usernameColumn = column(header, "username");
+            int passwordColumn = column(header, "password");
+            int emailColumn = column(header, "email");
+
+            Future<?> reading = stages.submit(() -> {
+                read(parser, header.size(), toValidate);
+                return null;
+            });
+            Future<?> validating = stages.submit(() -> {
+                validate(toValidate, toWrite, usernameColumn, passwordColumn, emailColumn);
+                return null;
+            });
+
+            Summary summary = write(header, toWrite, output, reading, validating);
+            await(reading);
+            await(validating);
+            return summary;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Registration pipeline interrupted", e);
+        } finally {
+            stages.shutdownNow();
+        }
+    }
+
+    private void read(CSVParser parser, int columns, BlockingQueue<Batch> toValidate) throws InterruptedException {
+        String[][] rows = new String[batchSize][];
+        int size = 0;
+        for (CSVRecord record : parser) {
+            String[] row = new String[columns];
+            for (int i = 0; i < columns && i < record.size(); i++) {
+                row[i] = record.get(i);
+            }
+            rows[size++] = row;
+            if (size == batchSize) {
+                toValidate.put(new Batch(rows, size));
+                rows = new String[batchSize][];
+                size = 0;
+            }
+        }
+        if (size > 0) toValidate.put(new Batch(rows, size));
+        toValidate.put(END);
+    }
+
+    private void validate(BlockingQueue<Batch> toValidate, BlockingQueue<Batch> toWrite,
+                          int usernameColumn, int passwordColumn, int emailColumn) throws InterruptedException {
+        Batch batch;
+        while ((batch = toValidate.take()) != END) {
+            for (int i = 0; i < batch.size; i++) {
+                String[] row = batch.rows[i];
+                batch.failedRules[i] = accountService.register(
+                        row[usernameColumn], row[passwordColumn], row[emailColumn]);
+            }
+            toWrite.put(batch);
+        }
+        toWrite.put(END);
+    }
+
+    private Summary write(List<String> header, BlockingQueue<Batch> toWrite, Writer output,
+                          Future<?> reading, Future<?> validating) throws IOException, InterruptedException {
+        CSVPrinter printer = new CSVPrinter(output, CSVFormat.DEFAULT);
+        List<String> outputHeader = new ArrayList<>(header);
+        outputHeader.add("valid");
+        outputHeader.add("failedRules");
+        printer.printRecord(outputHeader);
+
+        long rows = 0;
+        long accepted = 0;
+        Object[] out = new Object[header.size() + 2];
+        Batch batch;
+        while ((batch = takeOrFail(toWrite, reading, validating)) != END) {
+            for (int i = 0; i < batch.size; i++) {
+                int failed = batch.failedRules[i];
+                String[] row = batch.rows[i];
+                System.arraycopy(row, 0, out, 0, row.length);
+                out[row.length] = failed == 0;
+                out[row.length + 1] = failed == 0 ? "" : RegistrationRule.fromMask(failed).toString();
+                printer.printRecord(out);
+                if (failed == 0) accepted++;
+            }
+            rows += batch.size;
+        }
+        printer.flush();
+        return new Summary(rows, accepted);
+    }
+
+    // a failed stage never sends END, so poll and check the upstream futures while waiting
+    private static Batch takeOrFail(BlockingQueue<Batch> queue, Future<?>... upstream)
+            throws IOException, InterruptedException {
+        while (true) {
+            Batch batch = queue.poll(100, TimeUnit.MILLISECONDS);
+            if (batch != null) return batch;
+            for (Future<?> stage : upstream) {
+                if (stage.isDone()) await(stage);
+            }
+        }
+    }
+
+    private static void await(Future<?> stage) throws IOException, InterruptedException {
+        try {
+            stage.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Registration pipeline stage failed", cause);
+        }
+    }
+
+    private static int column(List<String> header, String name) throws IOException {
+        int index = header.indexOf(name);
+        if (index < 0) throw new IOException("Missing column '" + name + "' in header " + header);
+        return index;
+    }
+
+    private static final class Batch {
+        final String[][] rows;
+        final int size;
+        final int[] failedRules;
+
+        Batch(String[][] rows, int size) {
+            this.rows = rows;
+            this.size = size;
+            this.failedRules = new int[size];
+        }
+    }
+
+    /** Row counts of a finished run. */
+    public record Summary(long rows, long accepted) {
+        public long rejected() {
+            return rows - accepted;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package loipt.example;
+
+/** One row of a batch registration. */
+public record RegistrationRequest(String username, String password, String email) {
+}
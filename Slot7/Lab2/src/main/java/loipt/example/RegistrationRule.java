@@ -0,0 +1,38 @@
+package loipt.example;
+
+import java.util.EnumSet;
+
+/**
+ * The rules {@link AccountService#validateAccount} checks. A validation result is an
+ * {@code int} with the {@link #mask()} bit of every failed rule set; 0 means the account is valid.
+ */
+public enum RegistrationRule {
+    USERNAME_REQUIRED,
+    PASSWORD_LENGTH,
+    EMAIL_FORMAT,
+    /** Only reported when the service has an {@link AccountRegistry}. */
+    USERNAME_TAKEN,
+    /** Only reported when the service has an {@link AccountRegistry}. */
+    EMAIL_TAKEN;
+
+    private static final RegistrationRule[] VALUES = values();
+
+    private final int mask = 1 << ordinal();
+
+    public int mask() {
+        return mask;
+    }
+
+    public boolean isSetIn(int failedRules) {
+        return (failedRules & mask) != 0;
+    }
+
+    /** Expands a validation result into the set of failed rules. */
+    public static EnumSet<RegistrationRule> fromMask(int failedRules) {
+        EnumSet<RegistrationRule> rules = EnumSet.noneOf(RegistrationRule.class);
+        for (RegistrationRule rule : VALUES) {
+            if (rule.isSetIn(failedRules)) rules.add(rule);
+        }
+        return rules;
+    }
+}
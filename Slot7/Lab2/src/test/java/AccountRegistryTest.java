@@ -0,0 +1,126 @@
+import loipt.example.AccountRegistry;
+import loipt.example.AccountService;
+import loipt.example.RegistrationRule;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("1. Duplicate usernames and emails are rejected, ignoring case")
+    public void testDuplicatesRejected() {
+        AccountService accountService = new AccountService(new AccountRegistry());
+
+        assertTrue(accountService.registerAccount("john123", "pass123", "john@example.com"));
+        assertEquals(RegistrationRule.USERNAME_TAKEN.mask(),
+                accountService.register("John123", "pass1234", "other@example.com"));
+        assertEquals(RegistrationRule.EMAIL_TAKEN.mask(),
+                accountService.register("johnny", "pass1234", "JOHN@example.com"));
+        assertTrue(accountService.registerAccount("johnny", "pass1234", "johnny@example.com"));
+        assertEquals(2, accountService.getRegistry().size());
+    }
+
+    @Test
+    @DisplayName("2. A failed email claim releases the username again")
+    public void testFailedClaimReleasesUsername() {
+        AccountRegistry registry = new AccountRegistry();
+        assertEquals(0, registry.claim("alice", "shared@mail.com"));
+        assertEquals(RegistrationRule.EMAIL_TAKEN.mask(), registry.claim("bob", "shared@mail.com"));
+        assertFalse(registry.isUsernameTaken("bob"));
+        assertEquals(0, registry.claim("bob", "bob@mail.com"));
+    }
+
+    @Test
+    @DisplayName("3. validateAccount reports taken values alongside format errors without claiming")
+    public void testValidateReportsTakenRules() {
+        AccountService accountService = new AccountService(new AccountRegistry());
+        accountService.registerAccount("carol", "password", "carol@domain.com");
+
+        int failed = accountService.validateAccount("carol", "short", "carol@domain.com");
+        assertEquals(RegistrationRule.USERNAME_TAKEN.mask() | RegistrationRule.EMAIL_TAKEN.mask()
+                | RegistrationRule.PASSWORD_LENGTH.mask(), failed);
+        assertEquals(0, accountService.validateAccount("dave", "password", "dave@domain.com"));
+        assertFalse(accountService.getRegistry().isUsernameTaken("dave"));
+    }
+
+    @Test
+    @DisplayName("4. Concurrent claims of the same username let exactly one thread win")
+    public void testConcurrentClaims() throws Exception {
+        AccountRegistry registry = new AccountRegistry();
+        int threads = 8;
+        int names = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger wins = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < names; i++) {
+                    if (registry.claim("user" + i, "user" + i + "-" + thread + "@mail.com") == 0) {
+                        wins.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(names, wins.get());
+        assertEquals(names, registry.size());
+    }
+
+    @Test
+    @DisplayName("5. Snapshot and reload keep every account")
+    public void testSnapshotRoundTrip() throws IOException {
+        AccountRegistry registry = new AccountRegistry();
+        for (int i = 0; i < 50_000; i++) {
+            registry.claim("user" + i, "user" + i + "@mail.com");
+        }
+        Path file = tempDir.resolve("accounts.snapshot");
+        registry.snapshot(file);
+
+        AccountRegistry loaded = AccountRegistry.load(file);
+        assertEquals(registry.size(), loaded.size());
+        assertTrue(loaded.isUsernameTaken("USER42"));
+        assertTrue(loaded.isEmailTaken("user49999@mail.com"));
+        assertFalse(loaded.isUsernameTaken("user50000"));
+
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> AccountRegistry.load(file));
+    }
+
+    @Test
+    @DisplayName("6. Snapshot keeps an empty username and skips half-claimed pairs")
+    public void testSnapshotEdgeCases() throws IOException {
+        AccountRegistry registry = new AccountRegistry();
+        assertEquals(0, registry.claim("", "blank@mail.com"));
+        assertEquals(0, registry.claim("alice", "alice@mail.com"));
+        // the email is taken: the username is added and rolled back, and must not reach the snapshot
+        assertEquals(RegistrationRule.EMAIL_TAKEN.mask(), registry.claim("mallory", "alice@mail.com"));
+        Path file = tempDir.resolve("edge.snapshot");
+        registry.snapshot(file);
+
+        AccountRegistry loaded = AccountRegistry.load(file);
+        assertEquals(2, loaded.size());
+        assertTrue(loaded.isUsernameTaken(""));
+        assertTrue(loaded.isEmailTaken("blank@mail.com"));
+        assertFalse(loaded.isUsernameTaken("mallory"));
+    }
+}
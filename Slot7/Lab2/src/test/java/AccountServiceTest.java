@@ -1,4 +1,7 @@
 import loipt.example.AccountService;
+import loipt.example.BatchRegistrationResult;
+import loipt.example.RegistrationRequest;
+import loipt.example.RegistrationRule;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
@@ -10,6 +13,7 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.*;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -150,4 +154,55 @@ public class AccountServiceTest {
         assertFalse(accountService.isStrongPassword("NoNumber!"));
         assertFalse(accountService.isStrongPassword("NoSpecial123"));
     }
+
+    @Test
+    @DisplayName("9. Batch registration reports the failed rule per row, in input order")
+    public void testRegisterAccountsBatch() {
+        List<RegistrationRequest> requests = List.of(
+                new RegistrationRequest("validUser", "strongPass123", "valid@example.com"),
+                new RegistrationRequest("", "password123", "user3@example.com"),
+                new RegistrationRequest("user1", "12345", "user1@example.com"),
+                new RegistrationRequest("user2", "password123", "invalid-email"));
+        BatchRegistrationResult result = accountService.registerAccounts(requests);
+
+        assertEquals(4, result.size());
+        assertEquals(1, result.successCount());
+        assertTrue(result.isSuccess(0));
+        assertTrue(result.failedRules(0).isEmpty());
+        assertEquals(EnumSet.of(RegistrationRule.USERNAME_REQUIRED), result.failedRules(1));
+        assertEquals(EnumSet.of(RegistrationRule.PASSWORD_LENGTH), result.failedRules(2));
+        assertEquals(EnumSet.of(RegistrationRule.EMAIL_FORMAT), result.failedRules(3));
+    }
+
+    @Test
+    @DisplayName("10. Large parallel batch matches registerAccount row by row")
+    public void testRegisterAccountsLargeBatch() {
+        List<RegistrationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            String email = (i % 3 == 0) ? "user" + i + "@mail.com" : "user" + i + "mail.com";
+            String password = (i % 5 == 0) ? "short" : "password" + i;
+            requests.add(new RegistrationRequest(i % 7 == 0 ? "" : "user" + i, password, email));
+        }
+        BatchRegistrationResult result = accountService.registerAccounts(requests.stream());
+
+        assertEquals(requests.size(), result.size());
+        for (int i = 0; i < requests.size(); i++) {
+            RegistrationRequest request = requests.get(i);
+            assertEquals(accountService.validateAccount(request.username(), request.password(), request.email()),
+                    result.failedMask(i), "row " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("11. validateAccount reports every failing rule at once")
+    public void testValidateAccountReportsAllRules() {
+        assertEquals(0, accountService.validateAccount("validUser", "strongPass123", "valid@example.com"));
+        int failed = accountService.validateAccount(null, "12345", "invalid-email");
+        assertEquals(EnumSet.of(RegistrationRule.USERNAME_REQUIRED, RegistrationRule.PASSWORD_LENGTH,
+                RegistrationRule.EMAIL_FORMAT), RegistrationRule.fromMask(failed));
+        failed = accountService.validateAccount("user", null, "user@domain");
+        assertFalse(RegistrationRule.USERNAME_REQUIRED.isSetIn(failed));
+        assertTrue(RegistrationRule.PASSWORD_LENGTH.isSetIn(failed));
+        assertTrue(RegistrationRule.EMAIL_FORMAT.isSetIn(failed));
+    }
 }
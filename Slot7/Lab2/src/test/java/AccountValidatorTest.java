@@ -0,0 +1,132 @@
+import loipt.example.AccountValidator;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the hand-written validators against the regexes AccountService used before.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AccountValidatorTest {
+
+    private static final Pattern EMAIL = Pattern.compile("^[\\w.-]+@[\\w.-]+\\.[a-zA-Z]{2,}$");
+    private static final Pattern USERNAME = Pattern.compile("^[a-zA-Z0-9_]{3,20}$");
+    private static final Pattern PASSWORD =
+            Pattern.compile("^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$");
+
+    private static final String ALPHABET = "abcXYZ09_.-@$!%*?& \t\néß٣";
+    private static final int GENERATED_CASES = 200_000;
+
+    private List<String> inputs;
+
+    @BeforeAll
+    void initAll() throws IOException, URISyntaxException {
+        inputs = new ArrayList<>();
+        inputs.add(null);
+        inputs.add("");
+        addCsvInputs();
+        addGeneratedInputs(new Random(42));
+    }
+
+    @Test
+    @DisplayName("1. isValidEmail matches the original regex")
+    public void testEmailEquivalence() {
+        for (String input : inputs) {
+            boolean expected = input != null && EMAIL.matcher(input).matches();
+            assertEquals(expected, AccountValidator.isValidEmail(input), () -> "email: " + printable(input));
+        }
+    }
+
+    @Test
+    @DisplayName("2. isValidUsername matches the original regex")
+    public void testUsernameEquivalence() {
+        for (String input : inputs) {
+            boolean expected = input != null && USERNAME.matcher(input).matches();
+            assertEquals(expected, AccountValidator.isValidUsername(input), () -> "username: " + printable(input));
+        }
+    }
+
+    @Test
+    @DisplayName("3. isStrongPassword matches the original regex")
+    public void testPasswordEquivalence() {
+        for (String input : inputs) {
+            boolean expected = input != null && PASSWORD.matcher(input).matches();
+            assertEquals(expected, AccountValidator.isStrongPassword(input), () -> "password: " + printable(input));
+        }
+    }
+
+    @Test
+    @DisplayName("4. Generated inputs cover both accepted and rejected cases")
+    public void testGeneratedInputsAreMixed() {
+        assertTrue(inputs.stream().anyMatch(s -> s != null && EMAIL.matcher(s).matches()));
+        assertTrue(inputs.stream().anyMatch(s -> s != null && USERNAME.matcher(s).matches()));
+        assertTrue(inputs.stream().anyMatch(s -> s != null && PASSWORD.matcher(s).matches()));
+    }
+
+    private void addCsvInputs() throws IOException, URISyntaxException {
+        URL resource = getClass().getClassLoader().getResource("data.csv");
+        assertNotNull(resource, "data.csv file not found");
+        Path inputPath = Paths.get(resource.toURI());
+        try (Reader reader = Files.newBufferedReader(inputPath);
+             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build())) {
+            for (CSVRecord record : csvParser) {
+                inputs.add(record.get("username"));
+                inputs.add(record.get("password"));
+                inputs.add(record.get("email"));
+            }
+        }
+    }
+
+    private void addGeneratedInputs(Random random) {
+        for (int i = 0; i < GENERATED_CASES; i++) {
+            inputs.add(randomString(random, random.nextInt(24)));
+        }
+        // near-miss emails and passwords: valid shapes with one random edit
+        String[] seeds = {"user.name-1@mail.example.com", "a@b.co", "Abcdef1!", "StrongPass123$", "user_123"};
+        for (int i = 0; i < GENERATED_CASES; i++) {
+            StringBuilder sb = new StringBuilder(seeds[random.nextInt(seeds.length)]);
+            int pos = random.nextInt(sb.length() + 1);
+            switch (random.nextInt(3)) {
+                case 0 -> sb.insert(pos, ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                case 1 -> { if (pos < sb.length()) sb.deleteCharAt(pos); }
+                default -> { if (pos < sb.length()) sb.setCharAt(pos, ALPHABET.charAt(random.nextInt(ALPHABET.length()))); }
+            }
+            inputs.add(sb.toString());
+        }
+        // pathological and very long inputs
+        inputs.add("a".repeat(10_000) + "@" + "b".repeat(10_000) + ".com");
+        inputs.add("a".repeat(10_000) + "@" + ".".repeat(10_000) + "x");
+        inputs.add("Aa1!".repeat(5_000));
+        inputs.add("Aa1!".repeat(5_000) + " ");
+        inputs.add("_".repeat(20));
+        inputs.add("_".repeat(21));
+        inputs.add("valid@example.com\n");
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private static String printable(String s) {
+        return s == null ? "null" : "'" + s.replace("\n", "\\n").replace("\t", "\\t") + "'";
+    }
+}
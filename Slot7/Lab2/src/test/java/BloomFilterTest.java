@@ -0,0 +1,65 @@
+import loipt.example.AccountRegistry;
+import loipt.example.BloomFilter;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("1. Every inserted value is found")
+    public void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) filter.put("user" + i);
+        for (int i = 0; i < 100_000; i++) assertTrue(filter.mightContain("user" + i), "user" + i);
+    }
+
+    @Test
+    @DisplayName("2. False-positive rate stays close to the configured rate")
+    public void testFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) filter.put("user" + i + "@mail.com");
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("other" + i + "@mail.com")) falsePositives++;
+        }
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.02, "false-positive rate " + rate);
+        assertEquals(7, filter.hashCount());
+    }
+
+    @Test
+    @DisplayName("3. Invalid false-positive rates are rejected")
+    public void testInvalidRate() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1));
+    }
+
+    @Test
+    @DisplayName("4. Registry filters are rebuilt from a snapshot and track new claims")
+    public void testRegistryFiltersFromSnapshot() throws IOException {
+        AccountRegistry registry = new AccountRegistry();
+        for (int i = 0; i < 10_000; i++) registry.claim("user" + i, "user" + i + "@mail.com");
+        Path file = tempDir.resolve("accounts.snapshot");
+        registry.snapshot(file);
+
+        AccountRegistry loaded = AccountRegistry.load(file, 0.001);
+        assertTrue(loaded.hasFilters());
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(loaded.isUsernameTaken("User" + i));
+            assertTrue(loaded.isEmailTaken("user" + i + "@mail.com"));
+        }
+        assertFalse(loaded.isUsernameTaken("newcomer"));
+        assertEquals(0, loaded.claim("newcomer", "newcomer@mail.com"));
+        assertTrue(loaded.isUsernameTaken("newcomer"));
+        assertTrue(loaded.isEmailTaken("NEWCOMER@mail.com"));
+    }
+}
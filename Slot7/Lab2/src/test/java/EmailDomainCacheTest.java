@@ -0,0 +1,79 @@
+import loipt.example.AccountService;
+import loipt.example.AccountValidator;
+import loipt.example.EmailDomainCache;
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmailDomainCacheTest {
+
+    @Test
+    @DisplayName("1. Repeated domains are answered from the cache, ignoring case")
+    public void testRepeatedDomainsHit() {
+        EmailDomainCache cache = new EmailDomainCache(64);
+        AccountService accountService = new AccountService(null, cache);
+
+        assertTrue(accountService.isValidEmail("a@gmail.com"));
+        assertTrue(accountService.isValidEmail("b@GMAIL.com"));
+        assertTrue(accountService.isValidEmail("c@Gmail.Com"));
+        assertFalse(accountService.isValidEmail("d@domain"));
+        assertFalse(accountService.isValidEmail("e@DOMAIN"));
+
+        assertEquals(3, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(0.6, cache.hitRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("2. Surrounding whitespace is ignored, inner whitespace is not")
+    public void testWhitespaceNormalization() {
+        AccountService accountService = new AccountService();
+        assertTrue(accountService.isValidEmail("  test@example.com\t"));
+        assertTrue(accountService.registerAccount("user", "password123", " user@example.com "));
+        assertFalse(accountService.isValidEmail("test @example.com"));
+        assertFalse(accountService.isValidEmail("test@exa mple.com"));
+        assertFalse(accountService.isValidEmail("   "));
+    }
+
+    @Test
+    @DisplayName("3. Cached verdicts match the validator, and the cache stays bounded")
+    public void testMatchesValidatorUnderEviction() {
+        EmailDomainCache cache = new EmailDomainCache(16);
+        Random random = new Random(3);
+        String[] labels = {"gmail", "mail", "x", "", "sub.domain", "a-b", "under_score", "é"};
+        String[] tlds = {"com", "co", "c", "c0m", "ORG", "", "io"};
+        for (int i = 0; i < 50_000; i++) {
+            String domain = labels[random.nextInt(labels.length)] + random.nextInt(40) + "."
+                    + tlds[random.nextInt(tlds.length)];
+            String email = "user@" + domain;
+            assertEquals(AccountValidator.isValidEmailDomain(email, 5, email.length()),
+                    cache.isValidDomain(email, 5, email.length()), domain);
+        }
+        assertEquals(16, cache.capacity());
+        assertEquals(50_000, cache.hits() + cache.misses());
+        assertTrue(cache.misses() > 0);
+    }
+
+    @Test
+    @DisplayName("4. A full set evicts its least recently used domain")
+    public void testLeastRecentlyUsedIsEvicted() {
+        EmailDomainCache cache = new EmailDomainCache(4); // a single set of four slots
+        for (String domain : new String[]{"a.com", "b.com", "c.com", "d.com"}) {
+            cache.isValidDomain(domain, 0, domain.length());
+        }
+        cache.isValidDomain("a.com", 0, 5);
+        cache.isValidDomain("e.com", 0, 5); // evicts b.com
+        long misses = cache.misses();
+        for (String domain : new String[]{"a.com", "c.com", "d.com", "e.com"}) {
+            cache.isValidDomain(domain, 0, domain.length());
+        }
+        assertEquals(misses, cache.misses());
+        cache.isValidDomain("b.com", 0, 5);
+        assertEquals(misses + 1, cache.misses());
+
+        cache.clear();
+        assertEquals(0, cache.hits() + cache.misses());
+    }
+}
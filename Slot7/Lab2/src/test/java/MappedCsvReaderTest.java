@@ -0,0 +1,102 @@
+import loipt.example.AccountService;
+import loipt.example.MappedCsvReader;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MappedCsvReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("1. Parallel validation of data.csv through field views")
+    public void testValidateDataCsvInParallel() throws IOException, URISyntaxException {
+        URL resource = getClass().getClassLoader().getResource("data.csv");
+        assertNotNull(resource, "data.csv file not found");
+        AccountService accountService = new AccountService();
+        AtomicInteger failures = new AtomicInteger();
+
+        try (MappedCsvReader reader = MappedCsvReader.open(Paths.get(resource.toURI()))) {
+            int username = reader.column("username");
+            int password = reader.column("password");
+            int email = reader.column("email");
+            int expected = reader.column("expected");
+            long rows = reader.forEachParallel(row -> {
+                boolean actual = accountService.validateAccount(
+                        row.get(username), row.get(password), row.get(email)) == 0;
+                if (actual != Boolean.parseBoolean(row.get(expected).toString())) failures.incrementAndGet();
+            });
+            assertEquals(5, rows);
+        }
+        assertEquals(0, failures.get());
+    }
+
+    @Test
+    @DisplayName("2. Chunked parsing matches commons-csv on quoted, CRLF and non-ASCII rows")
+    public void testMatchesCommonsCsv() throws IOException {
+        Path file = tempDir.resolve("mixed.csv");
+        Random random = new Random(7);
+        StringBuilder csv = new StringBuilder("firstName,lastName,email,phone,expectedResult\r\n");
+        String[] values = {"John", "", "\"\"", "\"Doe, Jr.\"", "\"say \"\"hi\"\"\"", "Nguyễn", "an@gmail.com", "0912345678"};
+        for (int i = 0; i < 20_000; i++) {
+            for (int column = 0; column < 5; column++) {
+                if (column > 0) csv.append(',');
+                csv.append(values[random.nextInt(values.length)]);
+            }
+            csv.append(i % 3 == 0 ? "\r\n" : "\n");
+            if (i % 1000 == 0) csv.append('\n');
+        }
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+        List<List<String>> expected = new ArrayList<>();
+        try (Reader reader = Files.newBufferedReader(file);
+             CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build())) {
+            for (CSVRecord record : parser) expected.add(record.toList());
+        }
+
+        try (MappedCsvReader reader = MappedCsvReader.open(file)) {
+            assertEquals(List.of("firstName", "lastName", "email", "phone", "expectedResult"), reader.header());
+            List<List<String>> actual = new ArrayList<>();
+            for (MappedCsvReader.Chunk chunk : reader.chunks(7)) {
+                chunk.parse(row -> {
+                    List<String> fields = new ArrayList<>();
+                    for (int i = 0; i < row.size(); i++) fields.add(row.get(i).toString());
+                    actual.add(fields);
+                });
+            }
+            assertEquals(expected, actual);
+            assertEquals(expected.size(), reader.forEach(row -> { }));
+        }
+    }
+
+    @Test
+    @DisplayName("3. Header-only and empty files produce no rows")
+    public void testEmptyFiles() throws IOException {
+        Path headerOnly = Files.writeString(tempDir.resolve("header.csv"), "username,password,email\n");
+        Path empty = Files.writeString(tempDir.resolve("empty.csv"), "");
+        try (MappedCsvReader reader = MappedCsvReader.open(headerOnly)) {
+            assertEquals(3, reader.header().size());
+            assertEquals(0, reader.forEachParallel(row -> fail("no rows expected")));
+        }
+        try (MappedCsvReader reader = MappedCsvReader.open(empty)) {
+            assertTrue(reader.header().isEmpty());
+            assertEquals(0, reader.forEach(row -> fail("no rows expected")));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+import loipt.example.AccountService;
+import loipt.example.EmailDomainCache;
+import loipt.example.PasswordPolicy;
+import loipt.example.PasswordRule;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordPolicyTest {
+
+    @Test
+    @DisplayName("1. Default policy names the first failing rule, cheapest first")
+    public void testDefaultPolicyFailures() {
+        PasswordPolicy policy = PasswordPolicy.DEFAULT;
+        assertNull(policy.firstFailure("Abcdef1!"));
+        assertEquals("required", policy.firstFailure(null).name());
+        assertEquals("minLength", policy.firstFailure("short1!").name());
+        assertEquals("allowedCharacters", policy.firstFailure("Abcdef1! ").name());
+        assertEquals("requireUppercase", policy.firstFailure("alllowercase1!").name());
+        assertEquals("requireLowercase", policy.firstFailure("ALLUPPERCASE1!").name());
+        assertEquals("requireDigit", policy.firstFailure("NoNumber!").name());
+        assertEquals("requireSpecial", policy.firstFailure("NoSpecial123").name());
+    }
+
+    @Test
+    @DisplayName("2. Max length, banned list and custom rules compose with the built-in ones")
+    public void testCustomPolicy() {
+        AtomicInteger customCalls = new AtomicInteger();
+        PasswordPolicy policy = PasswordPolicy.builder()
+                .minLength(8)
+                .maxLength(64)
+                .specialCharacters("#@")
+                .allowedClasses(PasswordPolicy.LOWERCASE | PasswordPolicy.DIGIT | PasswordPolicy.SPECIAL)
+                .require(PasswordPolicy.DIGIT)
+                .bannedPasswords(List.of("PASSWORD1#"))
+                .rule(new PasswordRule() {
+                    public String name() { return "noRepeats"; }
+                    public int cost() { return 100; }
+                    public boolean test(CharSequence password, int classesSeen) {
+                        customCalls.incrementAndGet();
+                        for (int i = 1; i < password.length(); i++) {
+                            if (password.charAt(i) == password.charAt(i - 1)) return false;
+                        }
+                        return true;
+                    }
+                })
+                .build();
+
+        assertTrue(policy.test("abcdef1#"));
+        assertEquals("maxLength", policy.firstFailure("a1#".repeat(30)).name());
+        assertEquals("allowedCharacters", policy.firstFailure("Abcdef1#").name());
+        assertEquals("allowedCharacters", policy.firstFailure("abcdef1!").name());
+        assertEquals("notBanned", policy.firstFailure("password1#").name());
+        assertEquals("noRepeats", policy.firstFailure("abccdef1#").name());
+        int callsSoFar = customCalls.get();
+        assertEquals("minLength", policy.firstFailure("aa").name());
+        assertEquals(callsSoFar, customCalls.get(), "rules after a failure must not run");
+    }
+
+    @Test
+    @DisplayName("3. AccountService uses the policy it was given")
+    public void testServiceUsesPolicy() {
+        AccountService lenient = new AccountService(null, new EmailDomainCache(16),
+                PasswordPolicy.builder().minLength(4).build());
+        assertTrue(lenient.isStrongPassword("abcd"));
+        assertFalse(new AccountService().isStrongPassword("abcd"));
+    }
+}
@@ -0,0 +1,111 @@
+import loipt.example.AccountService;
+import loipt.example.RegistrationPipeline;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RegistrationPipelineTest {
+
+    private AccountService accountService;
+
+    @BeforeAll
+    void initAll() {
+        accountService = new AccountService();
+    }
+
+    @Test
+    @DisplayName("1. Pipeline output for data.csv matches the expected column")
+    public void testPipelineOnDataCsv() throws IOException, URISyntaxException {
+        URL resource = getClass().getClassLoader().getResource("data.csv");
+        assertNotNull(resource, "data.csv file not found");
+        Path inputPath = Paths.get(resource.toURI());
+        Path outputPath = Paths.get("target", "test-classes", "PipelineResult.csv");
+
+        RegistrationPipeline.Summary summary = new RegistrationPipeline(accountService).run(inputPath, outputPath);
+
+        assertEquals(5, summary.rows());
+        assertEquals(2, summary.accepted());
+        try (Reader reader = Files.newBufferedReader(outputPath);
+             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.builder()
+                     .setHeader().setSkipHeaderRecord(true).build())) {
+            assertEquals(List.of("username", "password", "email", "expected", "valid", "failedRules"),
+                    csvParser.getHeaderNames());
+            for (CSVRecord record : csvParser) {
+                assertEquals(record.get("expected"), record.get("valid"), "Row " + record.getRecordNumber());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("2. Large input streams through small batches in input order")
+    public void testPipelineKeepsOrder() throws IOException {
+        int rows = 100_000;
+        Reader input = new GeneratedCsvReader(rows);
+        StringWriter output = new StringWriter();
+
+        RegistrationPipeline.Summary summary = new RegistrationPipeline(accountService, 64, 2).run(input, output);
+
+        assertEquals(rows, summary.rows());
+        assertEquals(rows / 2, summary.accepted());
+        try (CSVParser csvParser = new CSVParser(new StringReader(output.toString()),
+                CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build())) {
+            int row = 0;
+            for (CSVRecord record : csvParser) {
+                assertEquals("user" + row, record.get("username"));
+                assertEquals(String.valueOf(row % 2 == 0), record.get("valid"));
+                assertEquals(row % 2 == 0 ? "" : "[EMAIL_FORMAT]", record.get("failedRules"));
+                row++;
+            }
+            assertEquals(rows, row);
+        }
+    }
+
+    @Test
+    @DisplayName("3. Missing columns are reported before any row is processed")
+    public void testPipelineRejectsMissingColumn() {
+        Reader input = new StringReader("username,password\nalice,secret123\n");
+        IOException e = assertThrows(IOException.class,
+                () -> new RegistrationPipeline(accountService).run(input, new StringWriter()));
+        assertTrue(e.getMessage().contains("email"));
+    }
+
+    /** Produces CSV rows on demand so the test never holds the whole input in memory. */
+    private static final class GeneratedCsvReader extends Reader {
+        private final int rows;
+        private int row = -1;
+        private String current = "username,password,email\n";
+        private int position;
+
+        GeneratedCsvReader(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == current.length()) {
+                if (++row >= rows) return -1;
+                String email = row % 2 == 0 ? "user" + row + "@mail.com" : "user" + row + "mail.com";
+                current = "user" + row + ",password" + row + "," + email + "\n";
+                position = 0;
+            }
+            int n = Math.min(length, current.length() - position);
+            current.getChars(position, position + n, buffer, offset);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
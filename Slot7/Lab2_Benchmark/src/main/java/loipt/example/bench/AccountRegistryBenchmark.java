@@ -0,0 +1,97 @@
+package loipt.example.bench;
+
+import loipt.example.AccountRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost and benefit of the Bloom pre-filters in {@link AccountRegistry}. Each benchmark
+ * runs against a registry already holding {@code accounts} accounts, with the filters
+ * {@code off} and {@code on}:
+ * <ul>
+ *   <li>{@code takenRulesAbsent}: the invalid-row path of {@code AccountService.register}
+ *       and {@code validateAccount} for values that were never registered, where the
+ *       filters answer without touching the maps</li>
+ *   <li>{@code takenRulesPresent}: the same lookup for registered values, which pays for
+ *       the filter probes and the map lookups</li>
+ *   <li>{@code claimNew} and {@code claimTaken}: the registration path, which only pays
+ *       for the filters when a claim succeeds</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountRegistryBenchmark {
+
+    private static final int PROBES = 4096;
+
+    @Param({"off", "on"})
+    public String filters;
+
+    @Param({"1000000"})
+    public int accounts;
+
+    private AccountRegistry registry;
+    private final String[] absentUsernames = new String[PROBES];
+    private final String[] absentEmails = new String[PROBES];
+    private final String[] presentUsernames = new String[PROBES];
+    private final String[] presentEmails = new String[PROBES];
+    private int index;
+    private long fresh;
+
+    @Setup(Level.Trial)
+    public void setUpProbes() {
+        for (int i = 0; i < PROBES; i++) {
+            absentUsernames[i] = "guest" + i;
+            absentEmails[i] = "guest" + i + "@mail.com";
+            // spread over the whole registry so lookups do not stay in cache
+            long n = (long) i * 7919 % accounts;
+            presentUsernames[i] = "user" + n;
+            presentEmails[i] = "user" + n + "@mail.com";
+        }
+    }
+
+    // rebuilt every iteration because claimNew keeps growing the registry
+    @Setup(Level.Iteration)
+    public void setUpRegistry() {
+        registry = new AccountRegistry(2 * accounts);
+        for (int i = 0; i < accounts; i++) registry.claim("user" + i, "user" + i + "@mail.com");
+        if (filters.equals("on")) registry.enableFilters(2L * accounts, 0.01);
+        fresh = 0;
+    }
+
+    private int next() {
+        int i = index + 1;
+        if (i == PROBES) i = 0;
+        index = i;
+        return i;
+    }
+
+    @Benchmark
+    public int takenRulesAbsent() {
+        int i = next();
+        return registry.takenRules(absentUsernames[i], absentEmails[i]);
+    }
+
+    @Benchmark
+    public int takenRulesPresent() {
+        int i = next();
+        return registry.takenRules(presentUsernames[i], presentEmails[i]);
+    }
+
+    @Benchmark
+    public int claimTaken() {
+        int i = next();
+        return registry.claim(presentUsernames[i], presentEmails[i]);
+    }
+
+    @Benchmark
+    public int claimNew() {
+        long n = fresh++;
+        return registry.claim("new" + n, "new" + n + "@mail.com");
+    }
+}
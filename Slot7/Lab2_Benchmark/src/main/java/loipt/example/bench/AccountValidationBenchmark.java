@@ -0,0 +1,65 @@
+package loipt.example.bench;
+
+import loipt.example.AccountService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the AccountService validation paths. Run with {@code -prof gc}
+ * to get bytes allocated per operation ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountValidationBenchmark {
+
+    @Param({"valid", "invalid", "pathological", "long"})
+    public String mix;
+
+    private AccountService accountService;
+    private String[] usernames;
+    private String[] passwords;
+    private String[] emails;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        accountService = new AccountService();
+        InputMix inputs = InputMix.of(mix);
+        usernames = inputs.usernames;
+        passwords = inputs.passwords;
+        emails = inputs.emails;
+    }
+
+    private int next() {
+        int i = index + 1;
+        if (i == usernames.length) i = 0;
+        index = i;
+        return i;
+    }
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return accountService.isValidEmail(emails[next()]);
+    }
+
+    @Benchmark
+    public boolean isValidUsername() {
+        return accountService.isValidUsername(usernames[next()]);
+    }
+
+    @Benchmark
+    public boolean isStrongPassword() {
+        return accountService.isStrongPassword(passwords[next()]);
+    }
+
+    @Benchmark
+    public boolean registerAccount() {
+        int i = next();
+        return accountService.registerAccount(usernames[i], passwords[i], emails[i]);
+    }
+}
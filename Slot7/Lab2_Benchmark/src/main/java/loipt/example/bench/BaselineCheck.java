@@ -0,0 +1,153 @@
+package loipt.example.bench;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with the committed baseline.
+ *
+ * <pre>
+ * BaselineCheck &lt;jmh-result.json&gt; &lt;baseline.json&gt; [tolerance]   fail on regressions
+ * BaselineCheck --update &lt;jmh-result.json&gt; &lt;baseline.json&gt;     rewrite the baseline
+ * </pre>
+ *
+ * A benchmark regresses when its throughput drops by more than {@code tolerance}
+ * (a fraction, 0.25 by default) or it allocates more bytes per operation than the
+ * baseline allows.
+ */
+public final class BaselineCheck {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+    // allocation figures jitter by a fraction of a byte even on allocation-free paths
+    private static final double ALLOC_SLACK_BYTES = 1.0;
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("--update")) {
+            Map<String, Entry> results = readResults(Paths.get(args[1]));
+            writeBaseline(Paths.get(args[2]), results);
+            System.out.println("Baseline written to " + Paths.get(args[2]).toAbsolutePath());
+            return;
+        }
+        if (args.length < 2) {
+            System.err.println("usage: BaselineCheck [--update] <jmh-result.json> <baseline.json> [tolerance]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.25;
+        Map<String, Entry> results = readResults(Paths.get(args[0]));
+        Map<String, Entry> baseline = readBaseline(Paths.get(args[1]));
+
+        List<String> failures = compare(results, baseline, tolerance);
+        if (!failures.isEmpty()) {
+            failures.forEach(f -> System.err.println("REGRESSION " + f));
+            System.exit(1);
+        }
+        System.out.printf("All %d benchmarks within %.0f%% of baseline%n", results.size(), tolerance * 100);
+    }
+
+    static List<String> compare(Map<String, Entry> results, Map<String, Entry> baseline, double tolerance) {
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Entry> e : results.entrySet()) {
+            Entry expected = baseline.get(e.getKey());
+            if (expected == null) {
+                System.out.println("no baseline for " + e.getKey() + ", skipped");
+                continue;
+            }
+            Entry actual = e.getValue();
+            double minOps = expected.opsPerSec * (1 - tolerance);
+            if (actual.opsPerSec < minOps) {
+                failures.add(String.format("%s: %.0f ops/s, baseline %.0f ops/s", e.getKey(), actual.opsPerSec, expected.opsPerSec));
+            }
+            if (actual.bytesPerOp != null && expected.bytesPerOp != null) {
+                double maxBytes = expected.bytesPerOp * (1 + tolerance) + ALLOC_SLACK_BYTES;
+                if (actual.bytesPerOp > maxBytes) {
+                    failures.add(String.format("%s: %.1f B/op, baseline %.1f B/op", e.getKey(), actual.bytesPerOp, expected.bytesPerOp));
+                }
+            }
+        }
+        return failures;
+    }
+
+    static Map<String, Entry> readResults(Path file) throws IOException {
+        Map<String, Entry> results = new TreeMap<>();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonArray runs = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement element : runs) {
+                JsonObject run = element.getAsJsonObject();
+                Entry entry = new Entry();
+                entry.opsPerSec = run.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+                JsonObject secondary = run.getAsJsonObject("secondaryMetrics");
+                if (secondary != null) {
+                    for (Map.Entry<String, JsonElement> metric : secondary.entrySet()) {
+                        if (metric.getKey().endsWith(ALLOC_METRIC)) {
+                            entry.bytesPerOp = metric.getValue().getAsJsonObject().get("score").getAsDouble();
+                        }
+                    }
+                }
+                results.put(key(run), entry);
+            }
+        }
+        return results;
+    }
+
+    private static String key(JsonObject run) {
+        String benchmark = run.get("benchmark").getAsString();
+        String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+        JsonObject params = run.getAsJsonObject("params");
+        if (params == null) return name;
+        StringBuilder sb = new StringBuilder(name).append('[');
+        String separator = "";
+        for (Map.Entry<String, JsonElement> p : new TreeMap<>(params.asMap()).entrySet()) {
+            sb.append(separator).append(p.getKey()).append('=').append(p.getValue().getAsString());
+            separator = ",";
+        }
+        return sb.append(']').toString();
+    }
+
+    private static Map<String, Entry> readBaseline(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Entry> baseline = new TreeMap<>();
+            JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
+            Gson gson = new Gson();
+            for (Map.Entry<String, JsonElement> e : root.entrySet()) {
+                baseline.put(e.getKey(), gson.fromJson(e.getValue(), Entry.class));
+            }
+            return baseline;
+        }
+    }
+
+    private static void writeBaseline(Path file, Map<String, Entry> results) throws IOException {
+        Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+        for (Entry entry : results.values()) {
+            entry.opsPerSec = Math.rint(entry.opsPerSec);
+            if (entry.bytesPerOp != null) entry.bytesPerOp = Math.rint(entry.bytesPerOp * 1000) / 1000;
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            gson.toJson(results, writer);
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    static final class Entry {
+        double opsPerSec;
+        Double bytesPerOp;
+    }
+}
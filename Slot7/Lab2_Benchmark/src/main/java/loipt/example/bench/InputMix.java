@@ -0,0 +1,60 @@
+package loipt.example.bench;
+
+import java.util.Arrays;
+
+/**
+ * Fixed input sets for the benchmarks. All arrays of one mix have the same length
+ * so a single index can walk usernames, passwords and emails together.
+ */
+final class InputMix {
+
+    final String[] usernames;
+    final String[] passwords;
+    final String[] emails;
+
+    private InputMix(String[] usernames, String[] passwords, String[] emails) {
+        this.usernames = usernames;
+        this.passwords = passwords;
+        this.emails = emails;
+    }
+
+    static InputMix of(String name) {
+        switch (name) {
+            case "valid":
+                return new InputMix(
+                        new String[]{"john123", "carol", "user_123", "UserName20", "validUser", "alice_01", "bob_smith", "x_y_z"},
+                        new String[]{"Abcdef1!", "StrongPass123$", "P@ssw0rdX", "Zz9?zzzzzz", "Hello$World1", "Qwerty12&", "N0tWeak!!", "Aa1!Aa1!Aa1!"},
+                        new String[]{"john@example.com", "carol@domain.com", "user.name-123@domain.co", "a@b.io",
+                                "alice@mail.com", "bob.smith@gmail.com", "x_y@sub.example.org", "valid@example.com"});
+            case "invalid":
+                return new InputMix(
+                        new String[]{"", "ab", "user!@#", "user name", "this_is_a_very_long_username", "é_user", "x", "a-b-c"},
+                        new String[]{"short1!", "alllowercase1!", "ALLUPPERCASE1!", "NoNumber!", "NoSpecial123", "pass word1!A", "", "12345"},
+                        new String[]{"invalid-email", "user@domain", "userdomain.com", "bobmail.com", "@example.com",
+                                "a@@b.com", "a@b.c", "user@domain.c0m"});
+            case "pathological":
+                // shapes that make backtracking regexes work hard before failing
+                return new InputMix(
+                        new String[]{"a".repeat(19) + "!", "_".repeat(21), "Ab1".repeat(7), "a".repeat(20) + " ",
+                                "z".repeat(19) + "é", "0".repeat(20) + "-", "A".repeat(21), "b".repeat(2)},
+                        new String[]{"a".repeat(64), "Aa1".repeat(20), "Aa!".repeat(20), "A1!".repeat(20),
+                                "Aa1!".repeat(15) + " ", "aA".repeat(30) + "1", "!".repeat(60) + "a", "Aa1".repeat(20) + "é"},
+                        new String[]{"a".repeat(64) + "@" + ".".repeat(64), "a@" + "b.".repeat(32) + "c",
+                                "a.".repeat(32) + "@x", "a@b" + ".c".repeat(32) + "1", "-".repeat(64) + "@-.-",
+                                "a@" + "-".repeat(64), "a".repeat(64) + "@b.", "a@b." + "c".repeat(63) + "1"});
+            case "long":
+                return new InputMix(
+                        repeat("u".repeat(20), 8),
+                        repeat("Aa1!" + "x".repeat(1020), 8),
+                        repeat("a".repeat(512) + "@" + "b".repeat(500) + ".com", 8));
+            default:
+                throw new IllegalArgumentException("Unknown input mix: " + name);
+        }
+    }
+
+    private static String[] repeat(String value, int count) {
+        String[] values = new String[count];
+        Arrays.fill(values, value);
+        return values;
+    }
+}